@@ -0,0 +1,71 @@
+package tourguide.tourguidedemo;
+
+import android.os.Bundle;
+import androidx.appcompat.app.ActionBarActivity;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.Button;
+
+import tourguide.tourguide.ToolTip;
+import tourguide.tourguide.ToolTipGroup;
+
+/**
+ * Several ToolTips are shown at once with a ToolTipGroup, which places them so they don't overlap and adds them in one layout pass.
+ * There is no Overlay nor Pointer, each button removes its own ToolTip when it is clicked.
+ */
+public class ToolTipGroupActivity extends ActionBarActivity {
+    public ToolTipGroup mHints;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        setContentView(R.layout.activity_tooltip_group);
+
+        Button button = (Button)findViewById(R.id.button);
+        Button button2 = (Button)findViewById(R.id.button2);
+        Button button3 = (Button)findViewById(R.id.button3);
+        Button button4 = (Button)findViewById(R.id.button4);
+        Button button5 = (Button)findViewById(R.id.button5);
+
+        // the returned group is used to remove the hints
+        mHints = ToolTipGroup.init(this)
+                .add(button, new ToolTip()
+                            .setTitle("Home")
+                            .setDescription("Back to where you started"))
+                .add(button2, new ToolTip()
+                            .setTitle("Search")
+                            .setDescription("Find anything")
+                            .setGravity(Gravity.BOTTOM|Gravity.LEFT))
+                .add(button3, new ToolTip()
+                            .setTitle("Play")
+                            .setDescription("Start right away"))
+                .add(button4, new ToolTip()
+                            .setTitle("Library")
+                            .setDescription("Everything you saved")
+                            .setGravity(Gravity.TOP))
+                .add(button5, new ToolTip()
+                            .setTitle("Settings")
+                            .setDescription("Make it yours")
+                            .setGravity(Gravity.TOP|Gravity.LEFT))
+                .show();
+
+        View.OnClickListener removeHint = new View.OnClickListener(){
+            @Override
+            public void onClick(View view) {
+                mHints.remove(view);
+            }
+        };
+        button.setOnClickListener(removeHint);
+        button2.setOnClickListener(removeHint);
+        button3.setOnClickListener(removeHint);
+        button4.setOnClickListener(removeHint);
+        button5.setOnClickListener(removeHint);
+    }
+
+    @Override
+    protected void onDestroy() {
+        mHints.cleanUp();
+        super.onDestroy();
+    }
+}
@@ -34,8 +34,8 @@ public class TourGuideDemoMain extends ActionBarActivity {
         public Object getItem(int arg0) { return null;}
         public long getItemId(int position) { return position; }
         public int getCount() {
-            return 20;
-//            return 21;
+            return 21;
+//            return 22;
         }
 
         public View getView(final int position, View convertView, ViewGroup parent) {
@@ -280,8 +280,17 @@ public class TourGuideDemoMain extends ActionBarActivity {
                         startActivity(mIntent);
                     }
                 });
+            } else if (position == 20){
+                text.setText("Several hints at once (ToolTipGroup)");
+                row.setOnClickListener(new View.OnClickListener() {
+                    @Override
+                    public void onClick(View v) {
+                        mIntent = new Intent(mActivity, ToolTipGroupActivity.class);
+                        startActivity(mIntent);
+                    }
+                });
             }
-//            else if (position == 20){
+//            else if (position == 21){
 //                text.setText("Memory Leak Test");
 //                row.setOnClickListener(new View.OnClickListener() {
 //                    @Override
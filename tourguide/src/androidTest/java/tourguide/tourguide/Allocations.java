@@ -0,0 +1,35 @@
+package tourguide.tourguide;
+
+import android.os.Debug;
+
+/**
+ * Counts the objects allocated by the current thread, used by the instrumented tests to prove that hot paths do not allocate.
+ */
+final class Allocations {
+    private Allocations() {
+    }
+
+    /**
+     * Run the work several times and return the smallest amount of objects allocated by one run.
+     * The first runs absorb one-off allocations of the runtime (class loading, JIT), which are not caused by the code under test.
+     *
+     * @param work   code under test
+     * @param rounds how many times the work is run
+     * @return objects allocated by the cheapest run
+     */
+    @SuppressWarnings("deprecation")
+    static int minAllocationCount(Runnable work, int rounds) {
+        int min = Integer.MAX_VALUE;
+        Debug.startAllocCounting();
+        try {
+            for (int i = 0; i < rounds; i++) {
+                Debug.resetThreadAllocCount();
+                work.run();
+                min = Math.min(min, Debug.getThreadAllocCount());
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        return min;
+    }
+}
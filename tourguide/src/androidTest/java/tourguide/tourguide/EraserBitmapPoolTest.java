@@ -0,0 +1,91 @@
+package tourguide.tourguide;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.test.ActivityInstrumentationTestCase2;
+import android.view.View;
+
+/**
+ * Plays a {@link Sequence} without a persistent overlay: every step removes its overlay and adds a new one. The mask of the previous step
+ * must be handed over to the next one through the {@link EraserBitmapPool}, instead of being dropped in between.
+ */
+public class EraserBitmapPoolTest extends ActivityInstrumentationTestCase2<TestHostActivity> {
+    private ChainTourGuide mGuide;
+    private Canvas mCanvas;
+    private Bitmap mScreen;
+
+    public EraserBitmapPoolTest() {
+        super(TestHostActivity.class);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                if (mGuide != null) {
+                    mGuide.cleanUp();
+                }
+            }
+        });
+        if (mScreen != null) {
+            mScreen.recycle();
+        }
+        super.tearDown();
+    }
+
+    public void testNextStepReusesTheMaskOfThePreviousStep() throws Throwable {
+        final TestHostActivity activity = getActivity();
+        getInstrumentation().waitForIdleSync();
+        final EraserBitmapPool pool = EraserBitmapPool.getInstance();
+        View decorView = activity.getWindow().getDecorView();
+        mScreen = Bitmap.createBitmap(decorView.getWidth(), decorView.getHeight(), Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(mScreen);
+
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                Sequence sequence = new Sequence.SequenceBuilder()
+                    .add(step(activity, activity.mTop), step(activity, activity.mCenter), step(activity, activity.mBottom))
+                    .setContinueMethod(Sequence.ContinueMethod.OVERLAY)
+                    .build();
+                mGuide = ChainTourGuide.init(activity);
+                mGuide.playInSequence(sequence);
+                drawOverlay();
+            }
+        });
+        int hits = pool.getHitCount();
+
+        for (int i = 0; i < 2; i++) {
+            runTestOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                    mGuide.next();
+                    drawOverlay();
+                }
+            });
+            getInstrumentation().waitForIdleSync();
+        }
+
+        // both later steps got the mask the step before them gave back
+        assertTrue("the steps after the first one did not reuse its mask", pool.getHitCount() >= hits + 2);
+    }
+
+    /* the mask is only needed on a software canvas, which is what the overlay is drawn on here */
+    private static ChainTourGuide step(TestHostActivity activity, View target) {
+        return ChainTourGuide.init(activity)
+            .setOverlay(new Overlay().setRenderMode(Overlay.RenderMode.ALPHA_MASK))
+            .playLater(target);
+    }
+
+    /**
+     * Lay out and draw the overlay of the current step right away, the way the next frame would
+     */
+    private void drawOverlay() {
+        FrameLayoutWithHole overlay = mGuide.mFrameLayout;
+        overlay.measure(View.MeasureSpec.makeMeasureSpec(mScreen.getWidth(), View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(mScreen.getHeight(), View.MeasureSpec.EXACTLY));
+        overlay.layout(0, 0, mScreen.getWidth(), mScreen.getHeight());
+        overlay.draw(mCanvas);
+    }
+}
@@ -0,0 +1,93 @@
+package tourguide.tourguide;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.test.AndroidTestCase;
+import android.view.View;
+
+/**
+ * Draws a laid out overlay with its pointer, the way every frame does. Once the mask is rendered, drawing must neither allocate nor
+ * invalidate the overlay, which would schedule another frame right away.
+ */
+public class FrameLayoutWithHoleDrawTest extends AndroidTestCase {
+    private static final int WIDTH = 720;
+    private static final int HEIGHT = 1280;
+    private static final int DRAWS = 100;
+
+    private Activity mActivity;
+    private View mTarget;
+    private Bitmap mScreen;
+    private Canvas mCanvas;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mActivity = new HostActivity(getContext());
+        mScreen = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(mScreen);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mScreen.recycle();
+        super.tearDown();
+    }
+
+    public void testSteadyStateDrawDoesNotAllocate() {
+        for (Overlay.Style style : Overlay.Style.values()) {
+            final FrameLayoutWithHole overlay = overlay(style);
+            layOut(overlay, WIDTH, HEIGHT);
+            // the first draw renders the mask
+            overlay.draw(mCanvas);
+
+            int allocated = Allocations.minAllocationCount(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < DRAWS; i++) {
+                        overlay.draw(mCanvas);
+                    }
+                }
+            }, 3);
+
+            assertEquals(style + " allocated while drawing", 0, allocated);
+        }
+    }
+
+    public void testDrawDoesNotInvalidate() {
+        for (Overlay.Style style : Overlay.Style.values()) {
+            FrameLayoutWithHole overlay = overlay(style);
+            layOut(overlay, WIDTH, HEIGHT);
+            overlay.draw(mCanvas);
+            assertFalse(style + " invalidated while drawing", overlay.isDirty());
+
+            // a rotation: the overlay is resized and the target moves, the hole and the pointer follow on the next layout
+            mTarget.layout(300, 200, 500, 300);
+            layOut(overlay, HEIGHT, WIDTH);
+            overlay.draw(mCanvas);
+            assertFalse(style + " invalidated while drawing after a resize", overlay.isDirty());
+        }
+    }
+
+    private FrameLayoutWithHole overlay(Overlay.Style style) {
+        mTarget = new View(mActivity);
+        mTarget.layout(200, 400, 400, 500);
+        FrameLayoutWithHole overlay = new FrameLayoutWithHole(mActivity, mTarget, TourGuide.MotionType.ALLOW_ALL, new Overlay().setStyle(style));
+        overlay.setPointer(new Pointer());
+        return overlay;
+    }
+
+    private static void layOut(View view, int width, int height) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, width, height);
+    }
+
+    /* the overlay only uses its activity as a context, it is never attached to a window here */
+    private static final class HostActivity extends Activity {
+        HostActivity(Context base) {
+            attachBaseContext(base);
+        }
+    }
+}
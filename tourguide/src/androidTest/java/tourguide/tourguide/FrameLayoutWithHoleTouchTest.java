@@ -0,0 +1,87 @@
+package tourguide.tourguide;
+
+import android.os.SystemClock;
+import android.test.ActivityInstrumentationTestCase2;
+import android.view.MotionEvent;
+import android.view.View;
+
+/**
+ * Taps the target of a guide through the hole of its overlay, with real events injected into the window, and checks whether the
+ * target is clicked for each {@link TourGuide.MotionType}.
+ */
+public class FrameLayoutWithHoleTouchTest extends ActivityInstrumentationTestCase2<TestHostActivity> {
+    private TourGuide mGuide;
+    private int mClicks;
+
+    public FrameLayoutWithHoleTouchTest() {
+        super(TestHostActivity.class);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                if (mGuide != null) {
+                    mGuide.cleanUp();
+                }
+            }
+        });
+        super.tearDown();
+    }
+
+    public void testSwipeOnlyTapInTheHoleDoesNotClick() throws Throwable {
+        playOnCenter(TourGuide.MotionType.SWIPE_ONLY);
+        tapCenter();
+
+        assertEquals("a tap went through a SWIPE_ONLY hole", 0, mClicks);
+    }
+
+    public void testAllowAllTapInTheHoleClicks() throws Throwable {
+        playOnCenter(TourGuide.MotionType.ALLOW_ALL);
+        tapCenter();
+
+        assertEquals(1, mClicks);
+    }
+
+    private void playOnCenter(final TourGuide.MotionType motionType) throws Throwable {
+        final TestHostActivity activity = getActivity();
+        getInstrumentation().waitForIdleSync();
+        runTestOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                activity.mCenter.setOnClickListener(new View.OnClickListener() {
+                    @Override
+                    public void onClick(View v) {
+                        mClicks++;
+                    }
+                });
+                mGuide = TourGuide.init(activity)
+                    .motionType(motionType)
+                    .setOverlay(new Overlay())
+                    .playOn(activity.mCenter);
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+    }
+
+    /**
+     * A DOWN and an UP at the center of the target, which is within the hole
+     */
+    private void tapCenter() {
+        View target = getActivity().mCenter;
+        int[] location = new int[2];
+        target.getLocationOnScreen(location);
+        float x = location[0] + target.getWidth() / 2f;
+        float y = location[1] + target.getHeight() / 2f;
+
+        long downTime = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        getInstrumentation().sendPointerSync(down);
+        down.recycle();
+        MotionEvent up = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(), MotionEvent.ACTION_UP, x, y, 0);
+        getInstrumentation().sendPointerSync(up);
+        up.recycle();
+        getInstrumentation().waitForIdleSync();
+    }
+}
@@ -0,0 +1,105 @@
+package tourguide.tourguide;
+
+import android.test.AndroidTestCase;
+
+/**
+ * Runs on a device, the geometry is kept in {@link android.graphics.RectF} which has no implementation in plain JVM tests
+ */
+public class HoleGeometryTest extends AndroidTestCase {
+    private static final float DENSITY = 2f;
+
+    public void testCircleRadiusFollowsTheLongestSideOfTheTarget() {
+        HoleGeometry geometry = new HoleGeometry();
+        geometry.resolve(100, 200, 80, 40, new Overlay().setStyle(Overlay.Style.CIRCLE), DENSITY);
+
+        assertEquals(140f, geometry.mCenterX, 0f);
+        assertEquals(220f, geometry.mCenterY, 0f);
+        assertEquals(80 / 2 + 20 * DENSITY, geometry.mRadius, 0f);
+    }
+
+    public void testExplicitHoleRadiusTakesPrecedence() {
+        HoleGeometry geometry = new HoleGeometry();
+        geometry.resolve(100, 200, 80, 40, new Overlay().setStyle(Overlay.Style.CIRCLE).setHoleRadius(15), DENSITY);
+
+        assertEquals(15f, geometry.mRadius, 0f);
+    }
+
+    public void testRoundedRectangleAppliesPaddingOffsetsAndCornerRadius() {
+        HoleGeometry geometry = new HoleGeometry();
+        Overlay overlay = new Overlay()
+            .setStyle(Overlay.Style.ROUNDED_RECTANGLE)
+            .setHolePadding(5)
+            .setHoleOffsets(3, 4)
+            .setRoundedCornerRadius(6);
+        geometry.resolve(100, 200, 80, 40, overlay, DENSITY);
+
+        assertEquals(93f, geometry.mBounds.left, 0f);
+        assertEquals(194f, geometry.mBounds.top, 0f);
+        assertEquals(193f, geometry.mBounds.right, 0f);
+        assertEquals(254f, geometry.mBounds.bottom, 0f);
+        assertEquals(12f, geometry.mCornerRadius, 0f);
+    }
+
+    public void testInvalidateMarksTheGeometryStale() {
+        HoleGeometry geometry = new HoleGeometry();
+        assertFalse(geometry.isResolved());
+
+        geometry.resolve(0, 0, 10, 10, new Overlay(), DENSITY);
+        assertTrue(geometry.isResolved());
+
+        geometry.invalidate();
+        assertFalse(geometry.isResolved());
+    }
+
+    public void testContainsFollowsTheCircleRatherThanItsBoundingBox() {
+        HoleGeometry geometry = new HoleGeometry();
+        geometry.resolve(0, 0, 40, 40, new Overlay().setStyle(Overlay.Style.CIRCLE).setHoleRadius(20), DENSITY);
+
+        assertTrue(geometry.contains(20, 20));
+        assertTrue(geometry.contains(20, 1));
+        assertFalse(geometry.contains(2, 2));
+        assertFalse(geometry.contains(41, 20));
+    }
+
+    public void testContainsLeavesOutTheRoundedCorners() {
+        HoleGeometry geometry = new HoleGeometry();
+        geometry.resolve(0, 0, 100, 40, new Overlay().setStyle(Overlay.Style.ROUNDED_RECTANGLE).setHolePadding(0).setRoundedCornerRadius(5), DENSITY);
+
+        assertTrue(geometry.contains(50, 1));
+        assertTrue(geometry.contains(5, 5));
+        assertFalse(geometry.contains(0.5f, 0.5f));
+        assertFalse(geometry.contains(99.5f, 39.5f));
+        assertFalse(geometry.contains(100, 20));
+    }
+
+    public void testContainsUsesTheTargetBoundsWithoutHole() {
+        HoleGeometry geometry = new HoleGeometry();
+        geometry.resolve(100, 200, 80, 40, new Overlay().setStyle(Overlay.Style.NO_HOLE), DENSITY);
+
+        assertTrue(geometry.contains(100, 200));
+        assertTrue(geometry.contains(179, 239));
+        assertFalse(geometry.contains(180, 220));
+        assertFalse(new HoleGeometry().contains(100, 200));
+    }
+
+    public void testLerpMorphsACircleIntoARoundedRectangle() {
+        HoleGeometry circle = new HoleGeometry();
+        circle.resolve(0, 0, 40, 40, new Overlay().setStyle(Overlay.Style.CIRCLE).setHoleRadius(20), DENSITY);
+        HoleGeometry rectangle = new HoleGeometry();
+        rectangle.resolve(100, 0, 40, 40, new Overlay().setStyle(Overlay.Style.RECTANGLE).setHolePadding(0), DENSITY);
+
+        HoleGeometry morph = new HoleGeometry();
+        morph.lerp(circle, rectangle, 0f);
+        assertEquals(0f, morph.mBounds.left, 0f);
+        assertEquals(20f, morph.mCornerRadius, 0f);
+
+        morph.lerp(circle, rectangle, 0.5f);
+        assertEquals(50f, morph.mBounds.left, 0f);
+        assertEquals(90f, morph.mBounds.right, 0f);
+        assertEquals(10f, morph.mCornerRadius, 0f);
+
+        morph.lerp(circle, rectangle, 1f);
+        assertEquals(100f, morph.mBounds.left, 0f);
+        assertEquals(0f, morph.mCornerRadius, 0f);
+    }
+}
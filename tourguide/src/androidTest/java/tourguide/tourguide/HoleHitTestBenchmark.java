@@ -0,0 +1,75 @@
+package tourguide.tourguide;
+
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+/**
+ * Replays a drag across the overlay through the hit test used for every touch event, and reports the cost per event.
+ * A drag must not allocate: every MOVE is hit tested up to three times (dispatch, touch listener, gesture detector).
+ * Results are printed with the "tourguide_benchmark" tag.
+ */
+public class HoleHitTestBenchmark extends AndroidTestCase {
+    private static final String TAG = "tourguide_benchmark";
+    private static final float DENSITY = 2f;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int EVENTS_PER_DRAG = 2000;
+    private static final int DRAGS = 100;
+
+    public void testDragDoesNotAllocate() {
+        for (Overlay.Style style : Overlay.Style.values()) {
+            final HoleGeometry geometry = resolve(style);
+
+            int allocated = Allocations.minAllocationCount(new Runnable() {
+                @Override
+                public void run() {
+                    drag(geometry);
+                }
+            }, 3);
+
+            assertEquals(style + " allocated while dragging", 0, allocated);
+        }
+    }
+
+    public void testReportCostPerEvent() {
+        for (Overlay.Style style : Overlay.Style.values()) {
+            HoleGeometry geometry = resolve(style);
+            // warm up so the JIT has compiled the hit test before measuring
+            for (int i = 0; i < DRAGS; i++) {
+                drag(geometry);
+            }
+
+            int hits = 0;
+            long start = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < DRAGS; i++) {
+                hits += drag(geometry);
+            }
+            long elapsed = SystemClock.elapsedRealtimeNanos() - start;
+
+            Log.d(TAG, String.format("%s hit test: %.1f ns/event", style, elapsed / (double) (DRAGS * EVENTS_PER_DRAG)));
+            assertTrue(style + " drag never hit the hole", hits > 0);
+        }
+    }
+
+    private static HoleGeometry resolve(Overlay.Style style) {
+        HoleGeometry geometry = new HoleGeometry();
+        geometry.resolve(400, 800, 200, 120, new Overlay().setStyle(style), DENSITY);
+        return geometry;
+    }
+
+    /**
+     * A diagonal drag from the top left to the bottom right corner of the overlay, going through the hole
+     */
+    private static int drag(HoleGeometry geometry) {
+        int hits = 0;
+        for (int i = 0; i < EVENTS_PER_DRAG; i++) {
+            float x = WIDTH * i / (float) EVENTS_PER_DRAG;
+            float y = HEIGHT * i / (float) EVENTS_PER_DRAG;
+            if (geometry.contains(x, y)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,62 @@
+package tourguide.tourguide;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.DisplayMetrics;
+import android.util.Log;
+
+/**
+ * Measures the UI thread work of one frame of a hole morph between every pair of {@link Overlay.Style}: interpolating the geometry and
+ * drawing the mask through the bitmap fallback. It does not time the whole frame on a hardware layer, and timings depend too much on the
+ * device to fail the suite, so results are only printed with the "tourguide_benchmark" tag.
+ */
+public class HoleMorphBenchmark extends AndroidTestCase {
+    private static final String TAG = "tourguide_benchmark";
+    private static final int FRAMES = 60;
+
+    public void testReportMorphFrameTime() {
+        DisplayMetrics metrics = getContext().getResources().getDisplayMetrics();
+        int width = metrics.widthPixels;
+        int height = metrics.heightPixels;
+
+        Paint eraser = new Paint(Paint.ANTI_ALIAS_FLAG);
+        eraser.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+        Bitmap screen = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas screenCanvas = new Canvas(screen);
+        OverlayMask mask = new OverlayMask(eraser);
+        mask.configure(width, height, Bitmap.Config.ALPHA_8, 1);
+
+        HoleGeometry from = new HoleGeometry();
+        HoleGeometry to = new HoleGeometry();
+        HoleGeometry morph = new HoleGeometry();
+
+        for (Overlay.Style fromStyle : Overlay.Style.values()) {
+            for (Overlay.Style toStyle : Overlay.Style.values()) {
+                Overlay overlay = new Overlay().setStyle(fromStyle);
+                from.resolve(width / 8, height / 8, width / 5, height / 10, overlay, metrics.density);
+                to.resolve(width / 2, height / 2, width / 3, height / 12, new Overlay().setStyle(toStyle), metrics.density);
+
+                long total = 0;
+                long worst = 0;
+                for (int frame = 0; frame <= FRAMES; frame++) {
+                    long start = SystemClock.elapsedRealtimeNanos();
+                    morph.lerp(from, to, frame / (float) FRAMES);
+                    mask.invalidate();
+                    mask.draw(screenCanvas, morph, overlay.mBackgroundColor);
+                    long elapsed = SystemClock.elapsedRealtimeNanos() - start;
+                    total += elapsed;
+                    worst = Math.max(worst, elapsed);
+                }
+                long average = total / (FRAMES + 1);
+                Log.d(TAG, String.format("morph %s -> %s: %d us average, %d us worst", fromStyle, toStyle, average / 1000, worst / 1000));
+            }
+        }
+        mask.release();
+        screen.recycle();
+    }
+}
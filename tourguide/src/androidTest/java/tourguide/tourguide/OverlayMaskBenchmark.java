@@ -0,0 +1,70 @@
+package tourguide.tourguide;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.DisplayMetrics;
+import android.util.Log;
+
+/**
+ * Measures memory and draw time of {@link OverlayMask} at full, half and quarter resolution for every {@link Overlay.Style}.
+ * Results are printed with the "tourguide_benchmark" tag.
+ */
+public class OverlayMaskBenchmark extends AndroidTestCase {
+    private static final String TAG = "tourguide_benchmark";
+    private static final int WARM_UP_ITERATIONS = 5;
+    private static final int ITERATIONS = 30;
+    private static final int[] DOWNSAMPLE_FACTORS = {1, 2, 4};
+
+    public void testDownsampledMaskSavesMemoryAndDrawTime() {
+        DisplayMetrics metrics = getContext().getResources().getDisplayMetrics();
+        int width = metrics.widthPixels;
+        int height = metrics.heightPixels;
+
+        Paint eraser = new Paint(Paint.ANTI_ALIAS_FLAG);
+        eraser.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+
+        Bitmap screen = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas screenCanvas = new Canvas(screen);
+
+        for (Overlay.Style style : Overlay.Style.values()) {
+            Overlay overlay = new Overlay().setStyle(style);
+            HoleGeometry hole = new HoleGeometry();
+            hole.resolve(width / 3, height / 3, width / 4, height / 8, overlay, metrics.density);
+
+            int fullResolutionBytes = 0;
+            for (int factor : DOWNSAMPLE_FACTORS) {
+                OverlayMask mask = new OverlayMask(eraser);
+                mask.configure(width, height, Bitmap.Config.ALPHA_8, factor);
+
+                for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+                    mask.invalidate();
+                    mask.draw(screenCanvas, hole, overlay.mBackgroundColor);
+                }
+
+                long start = SystemClock.elapsedRealtimeNanos();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    // render the mask every time, this is the cost paid whenever the hole changes
+                    mask.invalidate();
+                    mask.draw(screenCanvas, hole, overlay.mBackgroundColor);
+                }
+                long averageMicros = (SystemClock.elapsedRealtimeNanos() - start) / ITERATIONS / 1000;
+
+                int bytes = mask.getByteCount();
+                if (factor == 1) {
+                    fullResolutionBytes = bytes;
+                }
+                Log.d(TAG, String.format("%s 1/%d: %d bytes, %d us per draw", style, factor, bytes, averageMicros));
+
+                assertTrue(style + " 1/" + factor + " should use at most 1/" + (factor * factor) + " of the memory",
+                    bytes <= fullResolutionBytes / (factor * factor) + width + height);
+                mask.release();
+            }
+        }
+        screen.recycle();
+    }
+}
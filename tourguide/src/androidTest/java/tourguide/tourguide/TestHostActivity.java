@@ -0,0 +1,34 @@
+package tourguide.tourguide;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.view.Gravity;
+import android.widget.Button;
+import android.widget.FrameLayout;
+
+/**
+ * A window with a few buttons to play guides on, for the tests that need an overlay attached to a real window
+ */
+public class TestHostActivity extends Activity {
+    Button mTop;
+    Button mCenter;
+    Button mBottom;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        FrameLayout content = new FrameLayout(this);
+        mTop = addButton(content, "Top", Gravity.TOP | Gravity.CENTER_HORIZONTAL);
+        mCenter = addButton(content, "Center", Gravity.CENTER);
+        mBottom = addButton(content, "Bottom", Gravity.BOTTOM | Gravity.CENTER_HORIZONTAL);
+        setContentView(content);
+    }
+
+    private Button addButton(FrameLayout content, String text, int gravity) {
+        Button button = new Button(this);
+        button.setText(text);
+        content.addView(button, new FrameLayout.LayoutParams(FrameLayout.LayoutParams.WRAP_CONTENT,
+            FrameLayout.LayoutParams.WRAP_CONTENT, gravity));
+        return button;
+    }
+}
@@ -0,0 +1,109 @@
+package tourguide.tourguide;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.TextView;
+
+/**
+ * Measures the time from asking for a ToolTip to its first frame: getting the view, showing the ToolTip attributes on it, measuring,
+ * laying out and drawing it. Inflating R.layout.tooltip for each ToolTip, as the library used to, is compared to {@link ToolTipViewPool},
+ * where the steps of a sequence rebind the same view. Results are printed with the "tourguide_benchmark" tag.
+ */
+public class ToolTipViewBenchmark extends AndroidTestCase {
+    private static final String TAG = "tourguide_benchmark";
+    private static final int WARM_UP = 20;
+    private static final int STEPS = 200;
+
+    private Bitmap mScreen;
+    private Canvas mCanvas;
+    private int mWidthSpec;
+    private int mHeightSpec;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        DisplayMetrics metrics = getContext().getResources().getDisplayMetrics();
+        mScreen = Bitmap.createBitmap(metrics.widthPixels, metrics.heightPixels / 2, Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(mScreen);
+        mWidthSpec = View.MeasureSpec.makeMeasureSpec(metrics.widthPixels, View.MeasureSpec.AT_MOST);
+        mHeightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mScreen.recycle();
+        super.tearDown();
+    }
+
+    public void testPooledToolTipIsFasterThanInflating() {
+        int layout = R.layout.tooltip;
+        assertFalse("the tooltip layout is taken for an app override", ToolTipView.isLayoutOverridden(getContext().getResources()));
+        LayoutInflater inflater = LayoutInflater.from(getContext());
+        ToolTipViewPool pool = new ToolTipViewPool(getContext());
+
+        for (int i = 0; i < WARM_UP; i++) {
+            showInflated(inflater, layout, step(i));
+            showPooled(pool, step(i));
+        }
+
+        long inflated = 0;
+        long pooled = 0;
+        for (int i = 0; i < STEPS; i++) {
+            ToolTip toolTip = step(i);
+            long start = SystemClock.elapsedRealtimeNanos();
+            showInflated(inflater, layout, toolTip);
+            inflated += SystemClock.elapsedRealtimeNanos() - start;
+
+            start = SystemClock.elapsedRealtimeNanos();
+            showPooled(pool, toolTip);
+            pooled += SystemClock.elapsedRealtimeNanos() - start;
+        }
+        Log.d(TAG, String.format("tooltip to first frame: %d us inflated, %d us pooled", inflated / STEPS / 1000, pooled / STEPS / 1000));
+
+        assertTrue("pooled " + pooled / STEPS / 1000 + " us, inflated " + inflated / STEPS / 1000 + " us", pooled < inflated);
+    }
+
+    private static ToolTip step(int i) {
+        return new ToolTip()
+            .setTitle("Step " + i)
+            .setDescription(i % 2 == 0 ? "Click on the button to go on" : "Swipe the list to see more")
+            .setBackgroundColor(i % 2 == 0 ? Color.parseColor("#e74c3c") : Color.parseColor("#3498db"));
+    }
+
+    /* what setupToolTip() used to do */
+    private void showInflated(LayoutInflater inflater, int layout, ToolTip toolTip) {
+        View view = inflater.inflate(layout, null);
+        View container = view.findViewById(R.id.toolTip_container);
+        TextView title = (TextView) view.findViewById(R.id.title);
+        TextView description = (TextView) view.findViewById(R.id.description);
+        container.setBackgroundColor(toolTip.mBackgroundColor);
+        title.setTextColor(toolTip.mTitleColor);
+        title.setGravity(toolTip.mTitleGravity);
+        title.setText(toolTip.mTitle);
+        description.setTextColor(toolTip.mDescriptionColor);
+        description.setGravity(toolTip.mDescriptionGravity);
+        description.setText(toolTip.mDescription);
+        view.setBackgroundDrawable(getContext().getResources().getDrawable(R.drawable.bg_trans_shadow));
+        drawFirstFrame(view);
+    }
+
+    private void showPooled(ToolTipViewPool pool, ToolTip toolTip) {
+        ToolTipView view = pool.acquire();
+        view.bind(toolTip);
+        drawFirstFrame(view);
+        pool.release(view);
+    }
+
+    private void drawFirstFrame(View view) {
+        view.measure(mWidthSpec, mHeightSpec);
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        view.draw(mCanvas);
+    }
+}
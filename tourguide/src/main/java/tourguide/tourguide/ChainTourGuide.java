@@ -3,6 +3,8 @@ package tourguide.tourguide;
 import android.app.Activity;
 import android.view.View;
 
+import androidx.core.view.ViewCompat;
+
 /**
  * {@link ChainTourGuide} is designed to be used with {@link Sequence}. The purpose is to run TourGuide in a series.
  * {@link ChainTourGuide} extends from {@link TourGuide} with extra capability to be run in sequence.
@@ -56,18 +58,28 @@ public class ChainTourGuide extends TourGuide {
     }
 
     public ChainTourGuide next(){
-        if (mFrameLayout!=null) {
+        boolean hasNext = mSequence.mCurrentSequence < mSequence.mTourGuideArray.length;
+        // keep the overlay that is showing and only swap its content, when the sequence allows it
+        boolean reuseOverlay = hasNext && mSequence.mPersistentOverlay
+            && mFrameLayout != null && ViewCompat.isAttachedToWindow(mFrameLayout);
+
+        if (mFrameLayout!=null && !reuseOverlay) {
             cleanUp();
         }
 
-        if (mSequence.mCurrentSequence < mSequence.mTourGuideArray.length) {
-            setToolTip(mSequence.getToolTip());
+        if (hasNext) {
+            // not setToolTip(), it would show the new ToolTip on the previous target right away
+            swapToolTip(mSequence.getToolTip());
             setPointer(mSequence.getPointer());
             setOverlay(mSequence.getOverlay());
 
             mHighlightedView = mSequence.getNextTourGuide().mHighlightedView;
 
-            setupView();
+            if (reuseOverlay) {
+                rebindView(mSequence.mHoleMorphDuration);
+            } else {
+                setupView();
+            }
             mSequence.mCurrentSequence++;
         }
         return this;
@@ -91,6 +103,17 @@ public class ChainTourGuide extends TourGuide {
                 throw new NullPointerException("Please specify the view using 'playLater' method");
             }
         }
+        if (mActivity != null) {
+            // measure the texts of every step ahead, a step's own ToolTip takes precedence over the default one
+            if (sequence.mDefaultToolTip != null) {
+                sequence.mDefaultToolTip.precomputeText(mActivity);
+            }
+            for (ChainTourGuide tourGuide : sequence.mTourGuideArray){
+                if (tourGuide.mToolTip != null) {
+                    tourGuide.mToolTip.precomputeText(mActivity);
+                }
+            }
+        }
         return this;
     }
 }
@@ -0,0 +1,235 @@
+package tourguide.tourguide;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.Point;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Display;
+import android.view.WindowManager;
+
+import java.util.ArrayList;
+
+/**
+ * {@link EraserBitmapPool} keeps the screen sized bitmaps used by {@link FrameLayoutWithHole} alive between overlays, so that consecutive
+ * {@link ChainTourGuide} steps and several {@link TourGuide} shown at the same time reuse the same memory instead of allocating a new bitmap each.
+ * Bitmaps are matched by width, height and config. When the pooled bitmaps exceed the byte budget, the least recently returned ones are dropped.
+ * <p>
+ * The pool only holds memory while it is useful: it is emptied shortly after the last overlay is detached, which leaves the time for the
+ * next step of a sequence to attach its overlay, and trimmed on its own when the system asks the app to release memory, for example once
+ * its UI is hidden. By default the budget holds one full screen ARGB_8888 mask, the largest bitmap an overlay draws.
+ */
+public final class EraserBitmapPool {
+    /* before the screen size is known, about one full screen alpha mask */
+    private static final long DEFAULT_MAX_SIZE_BYTES = 4 * 1024 * 1024;
+    /* how long the bitmaps are kept once no overlay is attached, a next step or guide usually shows up within a frame or two */
+    private static final long RELEASE_DELAY_MS = 1000;
+
+    private static EraserBitmapPool sInstance;
+
+    /* ordered from the least recently returned to the most recently returned bitmap */
+    private final ArrayList<Bitmap> mBitmaps = new ArrayList<Bitmap>();
+    private long mMaxSizeBytes;
+    /* true once the app set the budget itself, it is not sized after the screen anymore */
+    private boolean mMaxSizeBytesSet;
+    private long mSizeBytes;
+
+    private int mHitCount;
+    private int mMissCount;
+    private int mEvictionCount;
+
+    /* overlays attached to a window, the trim callbacks are only registered while there is at least one */
+    private int mAttachedOverlayCount;
+    private Context mApplicationContext;
+    private final ComponentCallbacks2 mTrimCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            if (level >= TRIM_MEMORY_UI_HIDDEN || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+                clear();
+            } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+                trimToHalf();
+            }
+        }
+
+        @Override
+        public void onLowMemory() {
+            clear();
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {
+        }
+    };
+    private Handler mHandler;
+    private final Runnable mReleaseUnused = new Runnable() {
+        @Override
+        public void run() {
+            releaseUnused();
+        }
+    };
+
+    private EraserBitmapPool(long maxSizeBytes) {
+        mMaxSizeBytes = maxSizeBytes;
+    }
+
+    public static synchronized EraserBitmapPool getInstance() {
+        if (sInstance == null) {
+            sInstance = new EraserBitmapPool(capToHeap(DEFAULT_MAX_SIZE_BYTES));
+        }
+        return sInstance;
+    }
+
+    /**
+     * Borrow a bitmap from the pool, a new one is created when no pooled bitmap matches.
+     * The content of the returned bitmap is undefined, it should be erased before use.
+     *
+     * @param width  width in pixels
+     * @param height height in pixels
+     * @param config bitmap config
+     * @return a mutable bitmap, to be given back with {@link #release(Bitmap)} once it is not drawn anymore
+     */
+    public synchronized Bitmap acquire(int width, int height, Bitmap.Config config) {
+        for (int i = mBitmaps.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = mBitmaps.get(i);
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height && bitmap.getConfig() == config) {
+                mBitmaps.remove(i);
+                mSizeBytes -= bitmap.getByteCount();
+                mHitCount++;
+                return bitmap;
+            }
+        }
+        mMissCount++;
+        return Bitmap.createBitmap(width, height, config);
+    }
+
+    /**
+     * Give a bitmap back to the pool. The caller must not draw into or with the bitmap afterwards.
+     *
+     * @param bitmap bitmap obtained from {@link #acquire(int, int, Bitmap.Config)}, null is ignored
+     */
+    public synchronized void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable() || mBitmaps.contains(bitmap)) {
+            return;
+        }
+        mBitmaps.add(bitmap);
+        mSizeBytes += bitmap.getByteCount();
+        trimToSize(mMaxSizeBytes);
+    }
+
+    /**
+     * Set the maximum amount of bytes kept by the pool, the least recently returned bitmaps are evicted when it is exceeded
+     *
+     * @param maxSizeBytes byte budget, 0 disables pooling
+     */
+    public synchronized void setMaxSizeBytes(long maxSizeBytes) {
+        mMaxSizeBytes = maxSizeBytes;
+        mMaxSizeBytesSet = true;
+        trimToSize(maxSizeBytes);
+    }
+
+    /**
+     * Drop every pooled bitmap. The pool already does it shortly after the last overlay is detached and when the system asks for memory.
+     */
+    public synchronized void clear() {
+        trimToSize(0);
+    }
+
+    private synchronized void trimToHalf() {
+        trimToSize(mSizeBytes / 2);
+    }
+
+    /**
+     * Called by {@link FrameLayoutWithHole} when it is attached to a window, the pool listens to memory trims from then on
+     */
+    synchronized void onOverlayAttached(Context context) {
+        mAttachedOverlayCount++;
+        if (mHandler != null) {
+            // the previous overlay was just detached, its bitmap is kept for this one
+            mHandler.removeCallbacks(mReleaseUnused);
+        }
+        if (mApplicationContext == null) {
+            mApplicationContext = context.getApplicationContext();
+            mApplicationContext.registerComponentCallbacks(mTrimCallbacks);
+        }
+        if (!mMaxSizeBytesSet) {
+            mMaxSizeBytes = capToHeap(Math.max(DEFAULT_MAX_SIZE_BYTES, getScreenMaskBytes(context)));
+        }
+    }
+
+    /**
+     * Called by {@link FrameLayoutWithHole} when it is detached, after giving its bitmap back. Once no overlay is left, the bitmaps are
+     * kept a little longer for the next step of a sequence, which removes its overlay before adding the next one, then nothing is kept
+     * for a next guide that may never come.
+     */
+    synchronized void onOverlayDetached() {
+        if (mAttachedOverlayCount == 0)
+            return;
+        mAttachedOverlayCount--;
+        if (mAttachedOverlayCount == 0) {
+            if (mHandler == null) {
+                mHandler = new Handler(Looper.getMainLooper());
+            }
+            mHandler.postDelayed(mReleaseUnused, RELEASE_DELAY_MS);
+        }
+    }
+
+    private synchronized void releaseUnused() {
+        if (mAttachedOverlayCount > 0 || mApplicationContext == null)
+            return;
+        clear();
+        mApplicationContext.unregisterComponentCallbacks(mTrimCallbacks);
+        mApplicationContext = null;
+    }
+
+    /**
+     * @return the size of a full screen ARGB_8888 mask, system bars included since the overlay covers the decor view
+     */
+    private static long getScreenMaskBytes(Context context) {
+        Display display = ((WindowManager) context.getSystemService(Context.WINDOW_SERVICE)).getDefaultDisplay();
+        Point size = new Point();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            display.getRealSize(size);
+        } else {
+            display.getSize(size);
+        }
+        return (long) size.x * size.y * 4;
+    }
+
+    /**
+     * Small heaps get less, the pool never takes more than an eighth of the heap
+     */
+    private static long capToHeap(long maxSizeBytes) {
+        return Math.min(maxSizeBytes, Runtime.getRuntime().maxMemory() / 8);
+    }
+
+    private void trimToSize(long maxSizeBytes) {
+        while (mSizeBytes > maxSizeBytes && !mBitmaps.isEmpty()) {
+            Bitmap eldest = mBitmaps.remove(0);
+            mSizeBytes -= eldest.getByteCount();
+            mEvictionCount++;
+        }
+    }
+
+    public synchronized long getMaxSizeBytes() {
+        return mMaxSizeBytes;
+    }
+
+    public synchronized long getSizeBytes() {
+        return mSizeBytes;
+    }
+
+    public synchronized int getHitCount() {
+        return mHitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return mMissCount;
+    }
+
+    public synchronized int getEvictionCount() {
+        return mEvictionCount;
+    }
+}
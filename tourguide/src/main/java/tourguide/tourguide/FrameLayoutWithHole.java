@@ -1,53 +1,118 @@
 package tourguide.tourguide;
 
+import android.animation.Animator;
 import android.animation.AnimatorSet;
+import android.animation.ValueAnimator;
 import android.app.Activity;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
-import android.graphics.Point;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffXfermode;
+import android.graphics.Rect;
 import android.graphics.RectF;
-import android.text.TextPaint;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 import android.view.animation.Animation;
 import android.widget.FrameLayout;
 
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.OnLifecycleEvent;
+
 import java.util.ArrayList;
 
 /**
- * TODO: document your custom view class.
+ * {@link FrameLayoutWithHole} is the overlay of a {@link TourGuide}: it covers the window with the {@link Overlay} color, cuts a hole
+ * around the targeted view, draws the {@link Pointer} on it and routes touches according to the {@link TourGuide.MotionType}.
  */
 public class FrameLayoutWithHole extends FrameLayout {
-    private TextPaint mTextPaint;
     private Activity mActivity;
     private TourGuide.MotionType mMotionType;
     private Paint mEraser;
-
-    Bitmap mEraserBitmap;
-    private Canvas mEraserCanvas;
-    private Paint mPaint;
-    private Paint transparentPaint;
+    private OverlayMask mOverlayMask; // bitmap backed rendering, only used when the hole is not cut on a hardware layer
     private View mViewHole; // This is the targeted view to be highlighted, where the hole should be placed
-    private int mRadius;
-    private int[] mPos;
+    private final int[] mPos = new int[2];
+    private final int[] mOverlayPos = new int[2];
     private float mDensity;
     private Overlay mOverlay;
-    private RectF mRectF;
+    private final HoleGeometry mHoleGeometry = new HoleGeometry();
+    private final HoleGeometry mPreviousHoleGeometry = new HoleGeometry();
+    private final Rect mDamageRect = new Rect();
+    private boolean mUseHardwareLayer;
+    private boolean mTransitionLayer; // hardware layer only set for the duration of a legacy enter or exit Animation
+    private Animator mFadeAnimator;
+
+    /* hole morphing between two targets, the geometries and the animator are reused for every transition */
+    private final HoleGeometry mMorphFrom = new HoleGeometry();
+    private final HoleGeometry mMorphTo = new HoleGeometry();
+    private ValueAnimator mMorphAnimator;
+    private int mMorphFromColor;
+    private int mMorphColor;
 
     private ArrayList<AnimatorSet> mAnimatorSetArrayList;
+    /* everything is shown in its final state right away, see TourGuide#setStaticRendering(boolean) */
+    private boolean mStaticRendering;
+
+    private PointerRenderer mPointerRenderer;
+    private PointerAnimator mPointerAnimator;
+    private PointerDrawableAnimator mPointerDrawableAnimator;
+
+    /* animations are paused while the host is stopped or another window, e.g. a dialog, took the focus */
+    private boolean mHostStarted = true;
+    private boolean mWindowFocusLost;
+    private final LifecycleObserver mLifecycleObserver = new LifecycleObserver() {
+        @OnLifecycleEvent(Lifecycle.Event.ON_START)
+        public void onStart() {
+            mHostStarted = true;
+            updateAnimationsPaused();
+        }
+
+        @OnLifecycleEvent(Lifecycle.Event.ON_STOP)
+        public void onStop() {
+            mHostStarted = false;
+            updateAnimationsPaused();
+        }
+    };
+
+    /* touch routing, the policy is compiled when attached and the route is latched on ACTION_DOWN for the whole gesture */
+    private TouchPolicy mTouchPolicy = TouchPolicy.PASS_ALL;
+    private TouchPolicy.Route mTouchRoute = TouchPolicy.Route.PASS_THROUGH;
+    private int mTouchSlop;
+    private float mDownX;
+    private float mDownY;
+    /* the gesture moved beyond the touch slop, it is not a tap anymore */
+    private boolean mMoved;
+    /* where a SWIPE_ONLY gesture in the hole is handed to, and the offset from the overlay to it */
+    private View mSwipeReceiver;
+    private float mSwipeOffsetX;
+    private float mSwipeOffsetY;
 
     public void setViewHole(View viewHole) {
+        boolean changed = mViewHole != viewHole;
         this.mViewHole = viewHole;
-        enforceMotionType();
+        if (changed) {
+            updateHoleGeometry();
+        }
     }
 
+    /**
+     * Keep an AnimatorSet to end it when the overlay is removed
+     *
+     * @param animatorSet animation of a view added to the overlay
+     * @deprecated the pointer, the hole and the fades are no longer animated with AnimatorSets, nothing in TourGuide adds one.
+     * End your own animations when you clean up the TourGuide instead.
+     */
+    @Deprecated
     public void addAnimatorSet(AnimatorSet animatorSet) {
         if (mAnimatorSetArrayList == null) {
             mAnimatorSetArrayList = new ArrayList<AnimatorSet>();
@@ -55,28 +120,154 @@ public class FrameLayoutWithHole extends FrameLayout {
         mAnimatorSetArrayList.add(animatorSet);
     }
 
-    private void enforceMotionType() {
-        Log.d("tourguide", "enforceMotionType 1");
-        if (mViewHole != null) {
-            Log.d("tourguide", "enforceMotionType 2");
-            if (mMotionType != null && mMotionType == TourGuide.MotionType.CLICK_ONLY) {
-                Log.d("tourguide", "enforceMotionType 3");
-                Log.d("tourguide", "only Clicking");
-                mViewHole.setOnTouchListener(new OnTouchListener() {
-                    @Override
-                    public boolean onTouch(View view, MotionEvent motionEvent) {
-                        mViewHole.getParent().requestDisallowInterceptTouchEvent(true);
-                        return false;
-                    }
-                });
-            } else if (mMotionType != null && mMotionType == TourGuide.MotionType.SWIPE_ONLY) {
-                Log.d("tourguide", "enforceMotionType 4");
-                Log.d("tourguide", "only Swiping");
-                mViewHole.setClickable(false);
+    /**
+     * End and forget every AnimatorSet added with {@link #addAnimatorSet(AnimatorSet)}
+     */
+    private void endAnimatorSets() {
+        if (mAnimatorSetArrayList != null && !mAnimatorSetArrayList.isEmpty()) {
+            for (int i = 0; i < mAnimatorSetArrayList.size(); i++) {
+                mAnimatorSetArrayList.get(i).removeAllListeners();
+                mAnimatorSetArrayList.get(i).end();
             }
+            mAnimatorSetArrayList.clear();
         }
     }
 
+    /**
+     * Show the overlay and its pointer without any animation, the enter and exit transitions, the hole morph and the pointer
+     * animation are skipped
+     *
+     * @param staticRendering true to never animate
+     */
+    void setStaticRendering(boolean staticRendering) {
+        if (mStaticRendering == staticRendering)
+            return;
+        mStaticRendering = staticRendering;
+        if (staticRendering) {
+            cancelHoleMorph();
+            stopPointerAnimation();
+            mPointerRenderer.resetTransform();
+        }
+    }
+
+    /**
+     * Point this overlay, while it stays attached, to another target with another {@link Overlay}.
+     * Used by {@link ChainTourGuide} to move from one step of a {@link Sequence} to the next without building a new overlay.
+     *
+     * @param viewHole          the new targeted view
+     * @param motionType        the new motion type
+     * @param overlay           the new overlay attributes
+     * @param morphDurationMs   when above 0, the hole and the overlay color are animated from the old target to the new one
+     */
+    void rebind(View viewHole, TourGuide.MotionType motionType, Overlay overlay, long morphDurationMs) {
+        Overlay previous = mOverlay;
+        int previousColor = isMorphing() ? mMorphColor : (previous != null ? previous.mBackgroundColor : 0);
+        mOverlay = overlay;
+        mMotionType = motionType;
+        mViewHole = viewHole;
+        mTouchPolicy = TouchPolicy.compile(overlay, motionType);
+
+        if (previous == null || overlay == null
+            || previous.mRenderMode != overlay.mRenderMode || previous.mMaskDownsample != overlay.mMaskDownsample) {
+            // the way the hole is rendered changes, set it up again from scratch
+            mOverlayMask.release();
+            mUseHardwareLayer = shouldUseHardwareLayer();
+            setLayerType(mUseHardwareLayer ? LAYER_TYPE_HARDWARE : LAYER_TYPE_NONE, null);
+            cancelHoleMorph();
+            resolveHoleGeometry();
+            invalidate();
+        } else if (morphDurationMs > 0 && !mStaticRendering && mHoleGeometry.isResolved()) {
+            startHoleMorph(previousColor, morphDurationMs);
+        } else if (previous.mBackgroundColor != overlay.mBackgroundColor) {
+            cancelHoleMorph();
+            mOverlayMask.invalidate();
+            resolveHoleGeometry();
+            invalidate();
+        } else {
+            cancelHoleMorph();
+            updateHoleGeometry();
+        }
+    }
+
+    /**
+     * Animate the hole from what is currently drawn, which may be the middle of another morph, to the hole of the current target
+     */
+    private void startHoleMorph(int fromColor, long durationMs) {
+        if (mMorphAnimator != null) {
+            mMorphAnimator.cancel();
+        }
+        mMorphFrom.set(mHoleGeometry);
+        mMorphFromColor = fromColor;
+        resolveHoleGeometry(mMorphTo);
+        if (!mMorphTo.isResolved()) {
+            resolveHoleGeometry();
+            mOverlayMask.invalidate();
+            invalidate();
+            return;
+        }
+
+        if (mMorphAnimator == null) {
+            mMorphAnimator = ValueAnimator.ofFloat(0f, 1f);
+            mMorphAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    applyHoleMorph(animation.getAnimatedFraction());
+                }
+            });
+        }
+        mMorphColor = fromColor;
+        mMorphAnimator.setDuration(durationMs);
+        mMorphAnimator.start();
+        layoutPointer();
+    }
+
+    private void applyHoleMorph(float fraction) {
+        if (mOverlay == null)
+            return;
+
+        mPreviousHoleGeometry.set(mHoleGeometry);
+        if (fraction >= 1f) {
+            mHoleGeometry.set(mMorphTo);
+        } else {
+            mHoleGeometry.lerp(mMorphFrom, mMorphTo, fraction);
+        }
+        int color = lerpColor(mMorphFromColor, mOverlay.mBackgroundColor, fraction);
+        boolean colorChanged = color != mMorphColor;
+        mMorphColor = color;
+
+        mOverlayMask.invalidate();
+        if (colorChanged) {
+            invalidate();
+        } else {
+            invalidateDamage(mPreviousHoleGeometry.mBounds, mHoleGeometry.mBounds);
+        }
+    }
+
+    private void cancelHoleMorph() {
+        if (mMorphAnimator != null) {
+            mMorphAnimator.cancel();
+        }
+    }
+
+    private boolean isMorphing() {
+        return mMorphAnimator != null && mMorphAnimator.isRunning();
+    }
+
+    /**
+     * @return the overlay color to draw, which is only different from the overlay's background color while morphing
+     */
+    private int getOverlayColor() {
+        return isMorphing() ? mMorphColor : mOverlay.mBackgroundColor;
+    }
+
+    private static int lerpColor(int from, int to, float fraction) {
+        int a = (int) (Color.alpha(from) + (Color.alpha(to) - Color.alpha(from)) * fraction);
+        int r = (int) (Color.red(from) + (Color.red(to) - Color.red(from)) * fraction);
+        int g = (int) (Color.green(from) + (Color.green(to) - Color.green(from)) * fraction);
+        int b = (int) (Color.blue(from) + (Color.blue(to) - Color.blue(from)) * fraction);
+        return Color.argb(a, r, g, b);
+    }
+
     public FrameLayoutWithHole(Activity context, View view) {
         this(context, view, TourGuide.MotionType.ALLOW_ALL);
     }
@@ -90,86 +281,318 @@ public class FrameLayoutWithHole extends FrameLayout {
         mActivity = context;
         mViewHole = view;
         init(null, 0);
-        enforceMotionType();
         mOverlay = overlay;
 
         mDensity = context.getResources().getDisplayMetrics().density;
-        int padding = (int) (20 * mDensity);
+        mPointerRenderer = new PointerRenderer(this, mDensity);
+        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
 
         mMotionType = motionType;
 
-        if (mViewHole != null) {
-            int[] pos = new int[2];
-            mViewHole.getLocationOnScreen(pos);
-            mPos = pos;
+        resolveHoleGeometry();
+    }
 
-            if (mViewHole.getHeight() > mViewHole.getWidth()) {
-                mRadius = mViewHole.getHeight() / 2 + padding;
-            } else {
-                mRadius = mViewHole.getWidth() / 2 + padding;
+    /**
+     * Resolve the hole from the current position of the targeted view, this is the only place where the hole is calculated.
+     * Never called while drawing, placing the pointer may invalidate the overlay.
+     */
+    private void resolveHoleGeometry() {
+        resolveHoleGeometry(mHoleGeometry);
+        layoutPointer();
+    }
+
+    /**
+     * Draw a pointer on the targeted view, in the same frame as the overlay
+     *
+     * @param pointer the pointer, null to remove it
+     */
+    void setPointer(Pointer pointer) {
+        if (pointer == null) {
+            stopPointerAnimation();
+        }
+        mPointerRenderer.setPointer(pointer);
+        layoutPointer();
+    }
+
+    /**
+     * Loop a technique on the pointer, replacing the one that was running
+     *
+     * @param technique  technique to animate
+     * @param distance   distance travelled by the swiping techniques, in pixels
+     * @param startDelay delay before the pointer shows up, e.g. to let the ToolTip come in first
+     */
+    void startPointerAnimation(TourGuide.Technique technique, float distance, long startDelay) {
+        stopPointerAnimation();
+        if (mStaticRendering) {
+            // the pointer simply rests on the target
+            mPointerRenderer.resetTransform();
+            return;
+        }
+        Pointer pointer = mPointerRenderer.getPointer();
+        if (pointer != null && pointer.mRenderThreadAnimation && PointerDrawableAnimator.isSupported()) {
+            if (mPointerDrawableAnimator == null) {
+                mPointerDrawableAnimator = new PointerDrawableAnimator(this, mPointerRenderer, mDensity);
             }
+            mPointerDrawableAnimator.setVisible(shouldAnimate());
+            mPointerDrawableAnimator.start(technique, pointer.mColor, startDelay);
+            return;
+        }
+        if (mPointerAnimator == null) {
+            mPointerAnimator = new PointerAnimator(mPointerRenderer);
+        }
+        mPointerAnimator.setVisible(shouldAnimate());
+        mPointerAnimator.start(technique, distance, startDelay);
+    }
 
-            // Init a RectF to be used in OnDraw for a ROUNDED_RECTANGLE Style Overlay
-            if (mOverlay != null && mOverlay.mStyle == Overlay.Style.ROUNDED_RECTANGLE) {
-                int recfFPaddingPx = (int) (mOverlay.mPaddingDp * mDensity);
-                mRectF = new RectF(mPos[0] - recfFPaddingPx + mOverlay.mHoleOffsetLeft,
-                    mPos[1] - recfFPaddingPx + mOverlay.mHoleOffsetTop,
-                    mPos[0] + mViewHole.getWidth() + recfFPaddingPx + mOverlay.mHoleOffsetLeft,
-                    mPos[1] + mViewHole.getHeight() + recfFPaddingPx + mOverlay.mHoleOffsetTop);
+    private void stopPointerAnimation() {
+        if (mPointerAnimator != null) {
+            mPointerAnimator.cancel();
+        }
+        if (mPointerDrawableAnimator != null) {
+            mPointerDrawableAnimator.cancel();
+        }
+    }
+
+    @Override
+    protected boolean verifyDrawable(Drawable who) {
+        return mPointerRenderer.isDrawable(who) || super.verifyDrawable(who);
+    }
+
+    /* only called when the pointer drawable is animated on the UI thread, its bounds are relative to the pointer and not to the overlay */
+    @Override
+    public void invalidateDrawable(Drawable drawable) {
+        if (mPointerRenderer.isDrawable(drawable)) {
+            mPointerRenderer.invalidateDrawable();
+        } else {
+            super.invalidateDrawable(drawable);
+        }
+    }
+
+    /* nothing is animated while the overlay cannot be seen, or while the user is looking at something else */
+    private boolean shouldAnimate() {
+        return mHostStarted && !mWindowFocusLost && getWindowVisibility() == VISIBLE && isShown();
+    }
+
+    /**
+     * Pause or resume the running animations, the pointer leaves the shared clock or stops its drawable and the hole morph is paused where it is.
+     * Fades are left running, they are short and the fade out has to end for the overlay to be removed.
+     */
+    private void updateAnimationsPaused() {
+        boolean animate = shouldAnimate();
+        if (mPointerAnimator != null) {
+            mPointerAnimator.setVisible(animate);
+        }
+        if (mPointerDrawableAnimator != null) {
+            mPointerDrawableAnimator.setVisible(animate);
+        }
+        if (mMorphAnimator != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            if (animate) {
+                mMorphAnimator.resume();
+            } else {
+                mMorphAnimator.pause();
             }
         }
+    }
 
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateAnimationsPaused();
+    }
 
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateAnimationsPaused();
     }
 
-    private void init(AttributeSet attrs, int defStyle) {
-        // Load attributes
-        //        final TypedArray a = getContext().obtainStyledAttributes(
-        //                attrs, FrameLayoutWithHole, defStyle, 0);
-        //
-        //
-        //        a.recycle();
-        setWillNotDraw(false);
-        // Set up a default TextPaint object
-        mTextPaint = new TextPaint();
-        mTextPaint.setFlags(Paint.ANTI_ALIAS_FLAG);
-        mTextPaint.setTextAlign(Paint.Align.LEFT);
+    @Override
+    public void onWindowFocusChanged(boolean hasWindowFocus) {
+        super.onWindowFocusChanged(hasWindowFocus);
+        // only a loss counts, a window that never had the focus, e.g. before it is first focused, keeps animating
+        mWindowFocusLost = !hasWindowFocus;
+        updateAnimationsPaused();
+    }
+
+    /**
+     * Place the pointer on the target, which while morphing is the target the hole is heading to
+     */
+    private void layoutPointer() {
+        HoleGeometry target = isMorphing() ? mMorphTo : mHoleGeometry;
+        mPointerRenderer.layout(mViewHole != null && target.isResolved() ? target.mTargetBounds : null);
+    }
+
+    private void resolveHoleGeometry(HoleGeometry geometry) {
+        if (mViewHole == null || mOverlay == null) {
+            geometry.invalidate();
+            return;
+        }
+        // the hole is in the coordinates of the overlay, which only covers the screen when the window does (no split screen, no freeform window)
+        mViewHole.getLocationOnScreen(mPos);
+        getLocationOnScreen(mOverlayPos);
+        geometry.resolve(mPos[0] - mOverlayPos[0], mPos[1] - mOverlayPos[1], mViewHole.getWidth(), mViewHole.getHeight(), mOverlay, mDensity);
+    }
 
-        Point size = new Point();
-        size.x = mActivity.getResources().getDisplayMetrics().widthPixels;
-        size.y = mActivity.getResources().getDisplayMetrics().heightPixels;
+    /**
+     * Called by {@link TargetTracker} when the target or the overlay moved or was resized on screen, e.g. after a scroll, a rotation,
+     * a fold or a split screen resize. Only the area of the old and the new hole is repainted.
+     */
+    void onTargetMoved() {
+        if (mViewHole == null || mOverlay == null)
+            return;
+        if (isMorphing()) {
+            // keep morphing from where the hole is drawn now, towards where the target went
+            resolveHoleGeometry(mMorphTo);
+            layoutPointer();
+        } else {
+            updateHoleGeometry();
+        }
+    }
 
-        mEraserBitmap = Bitmap.createBitmap(size.x, size.y, Bitmap.Config.ARGB_8888);
-        mEraserCanvas = new Canvas(mEraserBitmap);
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        // the mask follows the size of the overlay on the next software draw, and the hole is resolved again in the new coordinates
+        mOverlayMask.invalidate();
+        mHoleGeometry.invalidate();
+    }
 
-        mPaint = new Paint();
-        mPaint.setColor(0xcc000000);
-        transparentPaint = new Paint();
-        transparentPaint.setColor(getResources().getColor(android.R.color.transparent));
-        transparentPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        // resolved here rather than lazily in onDraw(), which must not invalidate
+        if (mViewHole != null && !mHoleGeometry.isResolved()) {
+            updateHoleGeometry();
+        }
+    }
+
+    /**
+     * Resolve the hole again and repaint only the area covered by the old and the new hole
+     */
+    void updateHoleGeometry() {
+        mPreviousHoleGeometry.set(mHoleGeometry);
+        resolveHoleGeometry();
+        if (mHoleGeometry.sameAs(mPreviousHoleGeometry)) {
+            return;
+        }
+        mOverlayMask.invalidate();
+        if (!mHoleGeometry.isResolved() || !mPreviousHoleGeometry.isResolved()) {
+            invalidate();
+        } else {
+            invalidateDamage(mPreviousHoleGeometry.mBounds, mHoleGeometry.mBounds);
+        }
+    }
+
+    /**
+     * Invalidate the union of two areas of the overlay, typically the old and the new bounds of something that moved.
+     * The union is grown by a pixel on each side to cover the anti-aliased edges.
+     * <p>
+     * Only software rendering, and the hardware renderer before Lollipop, redraw just the area. From Lollipop on the platform ignores the
+     * rect when hardware accelerated, so on the default hardware layer path the whole overlay is invalidated and redrawn: limiting the
+     * damage to the hole and the pointer does not apply there. What that path still gains is that a moving pointer neither resolves the
+     * hole again nor renders a mask.
+     *
+     * @param oldBounds bounds before the change, in the coordinates of the overlay
+     * @param newBounds bounds after the change, in the coordinates of the overlay
+     */
+    void invalidateDamage(RectF oldBounds, RectF newBounds) {
+        if (isHardwareAccelerated() && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            invalidate();
+            return;
+        }
+        mDamageRect.set(
+            (int) Math.floor(Math.min(oldBounds.left, newBounds.left)) - 1,
+            (int) Math.floor(Math.min(oldBounds.top, newBounds.top)) - 1,
+            (int) Math.ceil(Math.max(oldBounds.right, newBounds.right)) + 1,
+            (int) Math.ceil(Math.max(oldBounds.bottom, newBounds.bottom)) + 1);
+        invalidate(mDamageRect);
+    }
+
+    private void init(AttributeSet attrs, int defStyle) {
+        setWillNotDraw(false);
 
         mEraser = new Paint();
         mEraser.setColor(0xFFFFFFFF);
         mEraser.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
         mEraser.setFlags(Paint.ANTI_ALIAS_FLAG);
 
-        Log.d("tourguide", "getHeight: " + size.y);
-        Log.d("tourguide", "getWidth: " + size.x);
+        mOverlayMask = new OverlayMask(mEraser);
+    }
+
+    /**
+     * The eraser bitmap is only needed when the hole cannot be cut on a hardware layer, so it is created lazily on the first software draw.
+     * It is sized after the overlay rather than the display, so it matches the window in split screen and follows resizes.
+     */
+    private void ensureEraserBitmap() {
+        Bitmap.Config config = useAlphaMask() ? Bitmap.Config.ALPHA_8 : Bitmap.Config.ARGB_8888;
+        mOverlayMask.configure(getWidth(), getHeight(), config, mOverlay.mMaskDownsample);
+    }
+
+    /**
+     * Decides whether the hole can be cut directly on a hardware layer instead of an offscreen bitmap.
+     * Only valid once the view is attached, because that is when hardware acceleration is known.
+     */
+    private boolean shouldUseHardwareLayer() {
+        if (mOverlay == null || mOverlay.mRenderMode != Overlay.RenderMode.AUTO) {
+            return false;
+        }
+        if (mOverlay.mMaskDownsample > 1) {
+            // a full resolution layer would defeat the purpose of a downsampled mask
+            return false;
+        }
+        return isHardwareAccelerated();
+    }
 
+    /**
+     * The mask only holds "overlay or hole", so unless ARGB_8888 is explicitly asked for, a single alpha channel is enough
+     */
+    private boolean useAlphaMask() {
+        return mOverlay == null || mOverlay.mRenderMode != Overlay.RenderMode.BITMAP;
     }
 
     private boolean mCleanUpLock = false;
 
     protected void cleanUp() {
         if (getParent() != null) {
-            if (mOverlay != null && mOverlay.mExitAnimation != null) {
+            if (mStaticRendering) {
+                ((ViewGroup) this.getParent()).removeView(this);
+            } else if (mOverlay != null && mOverlay.mExitAnimation != null) {
                 performOverlayExitAnimation();
+            } else if (mOverlay != null && mOverlay.mFadeOutDuration > 0) {
+                performOverlayFadeOut();
             } else {
                 ((ViewGroup) this.getParent()).removeView(this);
             }
         }
     }
 
+    private void performOverlayFadeOut() {
+        if (mCleanUpLock)
+            return;
+        mCleanUpLock = true;
+        cancelFade();
+        mFadeAnimator = ViewTransitions.fade(this, getAlpha(), 0f, mOverlay.mFadeOutDuration, null, new Runnable() {
+            @Override
+            public void run() {
+                // a cancelled fade out (see cancelFade()) leaves the overlay where it is
+                if (mFadeAnimator == null)
+                    return;
+                mFadeAnimator = null;
+                if (getParent() != null) {
+                    ((ViewGroup) getParent()).removeView(FrameLayoutWithHole.this);
+                }
+            }
+        });
+    }
+
+    private void cancelFade() {
+        if (mFadeAnimator != null) {
+            Animator fadeAnimator = mFadeAnimator;
+            mFadeAnimator = null;
+            fadeAnimator.cancel();
+        }
+    }
+
     private void performOverlayExitAnimation() {
         if (!mCleanUpLock) {
             final FrameLayout _pointerToFrameLayout = this;
@@ -197,182 +620,216 @@ public class FrameLayoutWithHole extends FrameLayout {
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
-        /* cleanup reference to prevent memory leak */
-        mEraserCanvas.setBitmap(null);
-        mEraserBitmap = null;
+        /* cleanup reference to prevent memory leak, and hand the bitmap over to the next overlay instead of leaving it to the GC */
+        mOverlayMask.release();
+        EraserBitmapPool.getInstance().onOverlayDetached();
+
+        cancelHoleMorph();
+        endAnimatorSets();
+        stopPointerAnimation();
+        cancelFade();
+        if (getContext() instanceof LifecycleOwner) {
+            ((LifecycleOwner) getContext()).getLifecycle().removeObserver(mLifecycleObserver);
+        }
+        mHostStarted = true;
+        mWindowFocusLost = false;
+    }
 
-        if (mAnimatorSetArrayList != null && !mAnimatorSetArrayList.isEmpty()) {
-            for (int i = 0; i < mAnimatorSetArrayList.size(); i++) {
-                mAnimatorSetArrayList.get(i).end();
-                mAnimatorSetArrayList.get(i).removeAllListeners();
-            }
+    /* a legacy Animation is drawn on a hardware layer as well, so the overlay is rendered once instead of on every frame */
+    @Override
+    protected void onAnimationStart() {
+        super.onAnimationStart();
+        if (getLayerType() == LAYER_TYPE_NONE && isHardwareAccelerated()) {
+            mTransitionLayer = true;
+            setLayerType(LAYER_TYPE_HARDWARE, null);
         }
     }
 
-    /**
-     * Show an event in the LogCat view, for debugging
-     */
-    private static void dumpEvent(MotionEvent event) {
-        String[] names = {"DOWN", "UP", "MOVE", "CANCEL", "OUTSIDE",
-            "POINTER_DOWN", "POINTER_UP", "7?", "8?", "9?"};
-        StringBuilder sb = new StringBuilder();
-        int action = event.getAction();
-        int actionCode = action & MotionEvent.ACTION_MASK;
-        sb.append("event ACTION_").append(names[actionCode]);
-        if (actionCode == MotionEvent.ACTION_POINTER_DOWN
-            || actionCode == MotionEvent.ACTION_POINTER_UP) {
-            sb.append("(pid ").append(
-                action >> MotionEvent.ACTION_POINTER_ID_SHIFT);
-            sb.append(")");
-        }
-        sb.append("[");
-        for (int i = 0; i < event.getPointerCount(); i++) {
-            sb.append("#").append(i);
-            sb.append("(pid ").append(event.getPointerId(i));
-            sb.append(")=").append((int) event.getX(i));
-            sb.append(",").append((int) event.getY(i));
-            if (i + 1 < event.getPointerCount())
-                sb.append(";");
-        }
-        sb.append("]");
-        Log.d("tourguide", sb.toString());
+    @Override
+    protected void onAnimationEnd() {
+        super.onAnimationEnd();
+        if (mTransitionLayer) {
+            mTransitionLayer = false;
+            setLayerType(LAYER_TYPE_NONE, null);
+        }
     }
 
     @Override
     public boolean dispatchTouchEvent(MotionEvent ev) {
-        //first check if the location button should handle the touch event
-        //        dumpEvent(ev);
-        //        int action = MotionEventCompat.getActionMasked(ev);
-        // if (mViewHole != null) {
-
-            //            Log.d("tourguide", "[dispatchTouchEvent] mViewHole.getHeight(): "+mViewHole.getHeight());
-            //            Log.d("tourguide", "[dispatchTouchEvent] mViewHole.getWidth(): "+mViewHole.getWidth());
-            //
-            //            Log.d("tourguide", "[dispatchTouchEvent] Touch X(): "+ev.getRawX());
-            //            Log.d("tourguide", "[dispatchTouchEvent] Touch Y(): "+ev.getRawY());
-
-            //            Log.d("tourguide", "[dispatchTouchEvent] X of image: "+pos[0]);
-            //            Log.d("tourguide", "[dispatchTouchEvent] Y of image: "+pos[1]);
-
-            //            Log.d("tourguide", "[dispatchTouchEvent] X lower bound: "+ pos[0]);
-            //            Log.d("tourguide", "[dispatchTouchEvent] X higher bound: "+(pos[0] +mViewHole.getWidth()));
-            //
-            //            Log.d("tourguide", "[dispatchTouchEvent] Y lower bound: "+ pos[1]);
-            //            Log.d("tourguide", "[dispatchTouchEvent] Y higher bound: "+(pos[1] +mViewHole.getHeight()));
-
-            if (mOverlay != null) {
-                if (isWithinTargetBoundary(ev)) {
-                    if (mOverlay.hasTargetListeners() || mOverlay.mDisableInteractWithTarget) {
-                        Log.d("tourguide", "block user clicking through hole");
-                        // block it, but still handle touch event.
-                        // We want to those listeners still work.
-                        super.dispatchTouchEvent(ev);
-                        return true;
-                    }
-                } else if (mOverlay.mOnClickOutsideTargetListener != null || mOverlay.mDisableClickThrough) {
-                    super.dispatchTouchEvent(ev);
-                    return true;
-                }
+        int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            mTouchRoute = mTouchPolicy.route(isWithinTargetBoundary(ev));
+            mDownX = ev.getX();
+            mDownY = ev.getY();
+            mMoved = false;
+        } else if (action == MotionEvent.ACTION_MOVE && !mMoved
+            && (Math.abs(ev.getX() - mDownX) > mTouchSlop || Math.abs(ev.getY() - mDownY) > mTouchSlop)) {
+            mMoved = true;
+        }
+        TouchPolicy.Route route = mTouchRoute;
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            mTouchRoute = TouchPolicy.Route.PASS_THROUGH;
+        }
+
+        switch (route) {
+            case CONSUME:
+                // block it, but still handle touch event. We want to those listeners still work.
+                super.dispatchTouchEvent(ev);
+                return true;
+            case FORWARD_TO_TARGET:
+                return forwardToTarget(ev);
+            case FORWARD_SWIPES:
+                super.dispatchTouchEvent(ev);
+                forwardSwipe(ev);
+                // the overlay keeps the gesture whatever the views below do with it, otherwise they would receive the tap themselves
+                return true;
+            default:
+                return super.dispatchTouchEvent(ev);
+        }
+    }
+
+    /**
+     * Hand an event of a gesture that started in the hole with {@link TourGuide.MotionType#SWIPE_ONLY} to the view tree of the target,
+     * starting right below the overlay, so the parents of the target that handle swipes, such as a ViewPager, still see them.
+     * A tap reaches it as ACTION_CANCEL instead of ACTION_UP, so it does not click.
+     */
+    private void forwardSwipe(MotionEvent ev) {
+        int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            mSwipeReceiver = findSwipeReceiver();
+            if (mSwipeReceiver != null) {
+                getLocationOnScreen(mOverlayPos);
+                mSwipeReceiver.getLocationOnScreen(mPos);
+                mSwipeOffsetX = mOverlayPos[0] - mPos[0];
+                mSwipeOffsetY = mOverlayPos[1] - mPos[1];
             }
+        }
+        View receiver = mSwipeReceiver;
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            mSwipeReceiver = null;
+        }
+        if (receiver == null)
+            return;
+
+        // the event is borrowed from the caller, so it is moved into the coordinates of the receiver and restored afterwards
+        boolean tap = action == MotionEvent.ACTION_UP && !mMoved;
+        ev.offsetLocation(mSwipeOffsetX, mSwipeOffsetY);
+        if (tap) {
+            ev.setAction(MotionEvent.ACTION_CANCEL);
+        }
+        receiver.dispatchTouchEvent(ev);
+        if (tap) {
+            ev.setAction(MotionEvent.ACTION_UP);
+        }
+        ev.offsetLocation(-mSwipeOffsetX, -mSwipeOffsetY);
+    }
 
-            // let it pass through
-            // return false;
-
-
-            // if (isWithinButton(ev)) {
-            //     if (mOverlay != null) {
-            //         if (mOverlay.mDisableClickThroughHole) {
-            //             Log.d("tourguide", "block user clicking through hole");
-            //             // block it, but still handle touch event.
-            //             // We want to those listeners still work.
-            //             super.dispatchTouchEvent(ev);
-            //             return true;
-            //         }
-            //     } else {
-            //         // let it pass through
-            //         return false;
-            //     }
-            // }
-
-            // if (isWithinButton(ev) && mOverlay != null && mOverlay.mDisableClickThroughHole) {
-            //     Log.d("tourguide", "block user clicking through hole");
-            //     // block it
-            //     return true;
-            // } else if (isWithinButton(ev)) {
-            //     // let it pass through
-            //     return false;
-            // }
-        // }
-        // do nothing, just propagating up to super
-        return super.dispatchTouchEvent(ev);
+    /**
+     * @return the ancestor of the target that is a sibling of the overlay, or the root of the target's window when the overlay is in
+     * another one
+     */
+    private View findSwipeReceiver() {
+        if (mViewHole == null)
+            return null;
+        View view = mViewHole;
+        ViewParent parent = view.getParent();
+        while (parent instanceof View && parent != getParent()) {
+            view = (View) parent;
+            parent = view.getParent();
+        }
+        return view;
     }
 
-    protected boolean isWithinTargetBoundary(MotionEvent ev) {
+    /**
+     * Hand an event of a gesture that started in the hole straight to the targeted view, so none of its parents can intercept it.
+     * With {@link TourGuide.MotionType#CLICK_ONLY} this keeps scrolling parents from turning the touch into a swipe.
+     *
+     * @return whether the target handled the event, when it does not take the ACTION_DOWN the rest of the gesture is not sent to it
+     */
+    private boolean forwardToTarget(MotionEvent ev) {
+        if (mViewHole == null || !mHoleGeometry.isResolved())
+            return false;
 
+        // the event is borrowed from the caller, so it is moved into the coordinates of the target and restored afterwards
+        float offsetX = -mHoleGeometry.mTargetBounds.left;
+        float offsetY = -mHoleGeometry.mTargetBounds.top;
+        ev.offsetLocation(offsetX, offsetY);
+        boolean handled = mViewHole.dispatchTouchEvent(ev);
+        ev.offsetLocation(-offsetX, -offsetY);
+        return handled;
+    }
+
+    /**
+     * Hit test a touch against the hole, using the hole resolved for the current layout pass instead of querying the target.
+     * The event must be in the coordinates of the overlay, as in {@link #dispatchTouchEvent(MotionEvent)} and its OnTouchListener.
+     *
+     * @param ev touch event
+     * @return true when the touch is within the shape of the hole
+     */
+    protected boolean isWithinTargetBoundary(MotionEvent ev) {
         if (mViewHole == null)
             return false;
 
-        int[] pos = new int[2];
-        mViewHole.getLocationOnScreen(pos);
-        RectF rect = new RectF(pos[0], pos[1], pos[0] + mViewHole.getWidth(), pos[1] + mViewHole.getHeight());
-        return rect.contains(ev.getRawX(), ev.getRawY());
-        // return ev.getRawY() >= pos[1] &&
-        //     ev.getRawY() <= (pos[1] + mViewHole.getHeight()) &&
-        //     ev.getRawX() >= pos[0] &&
-        //     ev.getRawX() <= (pos[0] + mViewHole.getWidth());
+        if (!mHoleGeometry.isResolved()) {
+            resolveHoleGeometry();
+        }
+        return mHoleGeometry.contains(ev.getX(), ev.getY());
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
-        mEraserBitmap.eraseColor(Color.TRANSPARENT);
-
-        if (mOverlay != null) {
-            mEraserCanvas.drawColor(mOverlay.mBackgroundColor);
-            int padding = (int) (mOverlay.mPaddingDp * mDensity);
-            // Log.i("TOURGUIDE", String.format("**********PADDING: %s**********", padding));
-
-            if (mViewHole != null) {
-
-                if (mOverlay.mStyle == Overlay.Style.RECTANGLE) {
-                    // Log.d("_bbb", "onDraw: " + String.valueOf(mPos[1]));
-
-                    mEraserCanvas.drawRect(
-                        mPos[0] - padding + mOverlay.mHoleOffsetLeft,
-                        mPos[1] - padding + mOverlay.mHoleOffsetTop,
-                        mPos[0] + mViewHole.getWidth() + padding + mOverlay.mHoleOffsetLeft,
-                        mPos[1] + mViewHole.getHeight() + padding + mOverlay.mHoleOffsetTop, mEraser);
-                } else if (mOverlay.mStyle == Overlay.Style.NO_HOLE) {
-                    mEraserCanvas.drawCircle(
-                        mPos[0] + mViewHole.getWidth() / 2 + mOverlay.mHoleOffsetLeft,
-                        mPos[1] + mViewHole.getHeight() / 2 + mOverlay.mHoleOffsetTop,
-                        0, mEraser);
-                } else if (mOverlay.mStyle == Overlay.Style.ROUNDED_RECTANGLE) {
-                    int roundedCornerRadiusPx;
-                    if (mOverlay.mRoundedCornerRadiusDp != 0) {
-                        roundedCornerRadiusPx = (int) (mOverlay.mRoundedCornerRadiusDp * mDensity);
-                    } else {
-                        roundedCornerRadiusPx = (int) (10 * mDensity);
-                    }
-                    mEraserCanvas.drawRoundRect(mRectF, roundedCornerRadiusPx, roundedCornerRadiusPx, mEraser);
-                } else {
-                    int holeRadius = mOverlay.mHoleRadius != Overlay.NOT_SET ? mOverlay.mHoleRadius : mRadius;
-                    mEraserCanvas.drawCircle(
-                        mPos[0] + mViewHole.getWidth() / 2 + mOverlay.mHoleOffsetLeft,
-                        mPos[1] + mViewHole.getHeight() / 2 + mOverlay.mHoleOffsetTop,
-                        holeRadius, mEraser);
-                }
-            }
+        if (mOverlay == null)
+            return;
+
+        if (mUseHardwareLayer && canvas.isHardwareAccelerated()) {
+            // the view is backed by a hardware layer, so CLEAR only erases the layer and not what is behind the overlay
+            drawOverlayWithHole(canvas, getOverlayColor());
+        } else {
+            ensureEraserBitmap();
+            // the mask only changes with the hole, redraws caused by the animating pointer just blit it, limited to the dirty area in software
+            mOverlayMask.draw(canvas, mHoleGeometry, getOverlayColor());
         }
-        canvas.drawBitmap(mEraserBitmap, 0, 0, null);
+        mPointerRenderer.draw(canvas);
+    }
 
+    /**
+     * Fills the overlay color and erases the hole on the canvas of the hardware layer
+     */
+    private void drawOverlayWithHole(Canvas canvas, int color) {
+        if (mOverlay == null)
+            return;
+
+        canvas.drawColor(color);
+        if (mViewHole != null) {
+            mHoleGeometry.draw(canvas, mEraser);
+        }
     }
 
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
+        EraserBitmapPool.getInstance().onOverlayAttached(getContext());
+        mUseHardwareLayer = shouldUseHardwareLayer();
+        if (mUseHardwareLayer) {
+            setLayerType(LAYER_TYPE_HARDWARE, null);
+        }
+        if (getContext() instanceof LifecycleOwner) {
+            // the observer is brought up to the current state right away, so a guide started while stopped stays paused
+            ((LifecycleOwner) getContext()).getLifecycle().addObserver(mLifecycleObserver);
+        }
+        mTouchPolicy = TouchPolicy.compile(mOverlay, mMotionType);
+        if (mStaticRendering)
+            return;
         if (mOverlay != null && mOverlay.mEnterAnimation != null) {
             this.startAnimation(mOverlay.mEnterAnimation);
+        } else if (mOverlay != null && mOverlay.mFadeInDuration > 0) {
+            mFadeAnimator = ViewTransitions.fade(this, 0f, 1f, mOverlay.mFadeInDuration, null, new Runnable() {
+                @Override
+                public void run() {
+                    mFadeAnimator = null;
+                }
+            });
         }
     }
 
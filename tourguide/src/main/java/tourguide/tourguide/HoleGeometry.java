@@ -0,0 +1,210 @@
+package tourguide.tourguide;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+/**
+ * {@link HoleGeometry} is the hole of a {@link FrameLayoutWithHole} resolved into plain numbers: shape, bounds, radii and offsets.
+ * It is resolved once from the targeted view and the {@link Overlay}, and kept until either of them changes,
+ * so drawing the hole is a single canvas call without any allocation or calculation.
+ */
+class HoleGeometry {
+    private static final int CIRCLE_PADDING_DP = 20;
+    private static final int DEFAULT_ROUNDED_CORNER_RADIUS_DP = 10;
+
+    Overlay.Style mShape;
+    /* bounding box of the hole, in the coordinates of the overlay */
+    final RectF mBounds = new RectF();
+    /* bounds of the targeted view itself, in the coordinates of the overlay */
+    final RectF mTargetBounds = new RectF();
+    float mCenterX;
+    float mCenterY;
+    float mRadius;
+    float mCornerRadius;
+    boolean mResolved;
+
+    /**
+     * Resolve the hole for a targeted view. Integer math is kept on purpose so the hole lands on exactly the same pixels as before.
+     *
+     * @param targetX      x of the targeted view, in the coordinates of the overlay
+     * @param targetY      y of the targeted view, in the coordinates of the overlay
+     * @param targetWidth  width of the targeted view
+     * @param targetHeight height of the targeted view
+     * @param overlay      overlay holding the style, padding, offsets and radii
+     * @param density      display density used to convert dp values
+     */
+    void resolve(int targetX, int targetY, int targetWidth, int targetHeight, Overlay overlay, float density) {
+        mShape = overlay.mStyle;
+        int padding = (int) (overlay.mPaddingDp * density);
+        int offsetLeft = overlay.mHoleOffsetLeft;
+        int offsetTop = overlay.mHoleOffsetTop;
+
+        mTargetBounds.set(targetX, targetY, targetX + targetWidth, targetY + targetHeight);
+        mCenterX = targetX + targetWidth / 2 + offsetLeft;
+        mCenterY = targetY + targetHeight / 2 + offsetTop;
+        mCornerRadius = 0;
+
+        if (mShape == Overlay.Style.RECTANGLE || mShape == Overlay.Style.ROUNDED_RECTANGLE) {
+            setBounds(targetX - padding + offsetLeft,
+                targetY - padding + offsetTop,
+                targetX + targetWidth + padding + offsetLeft,
+                targetY + targetHeight + padding + offsetTop);
+            mRadius = 0;
+            if (mShape == Overlay.Style.ROUNDED_RECTANGLE) {
+                int cornerRadiusDp = overlay.mRoundedCornerRadiusDp != 0 ? overlay.mRoundedCornerRadiusDp : DEFAULT_ROUNDED_CORNER_RADIUS_DP;
+                mCornerRadius = (int) (cornerRadiusDp * density);
+            }
+        } else if (mShape == Overlay.Style.NO_HOLE) {
+            mRadius = 0;
+            setBounds(mCenterX, mCenterY, mCenterX, mCenterY);
+        } else {
+            if (overlay.mHoleRadius != Overlay.NOT_SET) {
+                mRadius = overlay.mHoleRadius;
+            } else {
+                mRadius = Math.max(targetWidth, targetHeight) / 2 + (int) (CIRCLE_PADDING_DP * density);
+            }
+            setBounds(mCenterX - mRadius, mCenterY - mRadius, mCenterX + mRadius, mCenterY + mRadius);
+        }
+        mResolved = true;
+    }
+
+    /**
+     * Mark the geometry as stale, it will be resolved again before the next draw
+     */
+    void invalidate() {
+        mResolved = false;
+    }
+
+    boolean isResolved() {
+        return mResolved;
+    }
+
+    /**
+     * Copy another geometry into this one, without allocating
+     */
+    void set(HoleGeometry other) {
+        mShape = other.mShape;
+        mBounds.set(other.mBounds);
+        mTargetBounds.set(other.mTargetBounds);
+        mCenterX = other.mCenterX;
+        mCenterY = other.mCenterY;
+        mRadius = other.mRadius;
+        mCornerRadius = other.mCornerRadius;
+        mResolved = other.mResolved;
+    }
+
+    /**
+     * @return true when both geometries erase exactly the same pixels
+     */
+    boolean sameAs(HoleGeometry other) {
+        return mResolved == other.mResolved
+            && mShape == other.mShape
+            && mBounds.left == other.mBounds.left
+            && mBounds.top == other.mBounds.top
+            && mBounds.right == other.mBounds.right
+            && mBounds.bottom == other.mBounds.bottom
+            && mRadius == other.mRadius
+            && mCornerRadius == other.mCornerRadius;
+    }
+
+    /**
+     * Interpolate between two geometries, for example to morph the hole from one step of a {@link Sequence} to the next.
+     * Every shape is expressed as a rounded rectangle for this: a circle has a corner radius of half its size, a rectangle none,
+     * and {@link Overlay.Style#NO_HOLE} is an empty rectangle at the center of the target.
+     *
+     * @param from     geometry at fraction 0
+     * @param to       geometry at fraction 1
+     * @param fraction progress of the interpolation, from 0 to 1
+     */
+    void lerp(HoleGeometry from, HoleGeometry to, float fraction) {
+        mShape = Overlay.Style.ROUNDED_RECTANGLE;
+        setBounds(lerp(from.mBounds.left, to.mBounds.left, fraction),
+            lerp(from.mBounds.top, to.mBounds.top, fraction),
+            lerp(from.mBounds.right, to.mBounds.right, fraction),
+            lerp(from.mBounds.bottom, to.mBounds.bottom, fraction));
+        mTargetBounds.set(lerp(from.mTargetBounds.left, to.mTargetBounds.left, fraction),
+            lerp(from.mTargetBounds.top, to.mTargetBounds.top, fraction),
+            lerp(from.mTargetBounds.right, to.mTargetBounds.right, fraction),
+            lerp(from.mTargetBounds.bottom, to.mTargetBounds.bottom, fraction));
+        mCenterX = (mBounds.left + mBounds.right) / 2;
+        mCenterY = (mBounds.top + mBounds.bottom) / 2;
+        mRadius = 0;
+        mCornerRadius = lerp(from.getMorphCornerRadius(), to.getMorphCornerRadius(), fraction);
+        mResolved = true;
+    }
+
+    private float getMorphCornerRadius() {
+        if (mShape == Overlay.Style.ROUNDED_RECTANGLE) {
+            return mCornerRadius;
+        } else if (mShape == Overlay.Style.CIRCLE) {
+            return mRadius;
+        }
+        return 0;
+    }
+
+    private static float lerp(float from, float to, float fraction) {
+        return from + (to - from) * fraction;
+    }
+
+    /**
+     * Hit test against the shape of the hole, so a touch in the corner of a circle's bounding box is outside of it.
+     * With {@link Overlay.Style#NO_HOLE} the bounds of the targeted view are used instead.
+     *
+     * @param x x of the touch, in the coordinates of the overlay
+     * @param y y of the touch, in the coordinates of the overlay
+     * @return true when the point is within the hole
+     */
+    boolean contains(float x, float y) {
+        if (!mResolved || mShape == null)
+            return false;
+
+        switch (mShape) {
+            case RECTANGLE:
+                return mBounds.contains(x, y);
+            case ROUNDED_RECTANGLE:
+                if (!mBounds.contains(x, y))
+                    return false;
+                // only the corners are rounded: distance to the nearest point of the rectangle shrunk by the corner radius
+                float radius = Math.min(mCornerRadius, Math.min(mBounds.right - mBounds.left, mBounds.bottom - mBounds.top) / 2);
+                float dx = x - Math.max(mBounds.left + radius, Math.min(x, mBounds.right - radius));
+                float dy = y - Math.max(mBounds.top + radius, Math.min(y, mBounds.bottom - radius));
+                return dx * dx + dy * dy <= radius * radius;
+            case NO_HOLE:
+                return mTargetBounds.contains(x, y);
+            default:
+                float cx = x - mCenterX;
+                float cy = y - mCenterY;
+                return cx * cx + cy * cy <= mRadius * mRadius;
+        }
+    }
+
+    /**
+     * Erase the hole on the canvas
+     *
+     * @param canvas canvas holding the overlay color
+     * @param eraser paint used to cut out the hole
+     */
+    void draw(Canvas canvas, Paint eraser) {
+        if (!mResolved || mShape == null)
+            return;
+
+        switch (mShape) {
+            case RECTANGLE:
+                canvas.drawRect(mBounds, eraser);
+                break;
+            case ROUNDED_RECTANGLE:
+                canvas.drawRoundRect(mBounds, mCornerRadius, mCornerRadius, eraser);
+                break;
+            case NO_HOLE:
+                break;
+            default:
+                canvas.drawCircle(mCenterX, mCenterY, mRadius, eraser);
+                break;
+        }
+    }
+
+    private void setBounds(float left, float top, float right, float bottom) {
+        mBounds.set(left, top, right, bottom);
+    }
+}
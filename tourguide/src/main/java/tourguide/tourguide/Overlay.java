@@ -31,6 +31,10 @@ public class Overlay {
     protected final static int NOT_SET = -1;
     protected int mPaddingDp = 10;
     protected int mRoundedCornerRadiusDp = 0;
+    protected RenderMode mRenderMode = RenderMode.AUTO;
+    protected int mMaskDownsample = 1;
+    protected long mFadeInDuration = 0;
+    protected long mFadeOutDuration = 0;
 
     public interface OnClickOutSideTargetCancelListener {
         void onCancel(Activity activity, TourGuide tourGuide);
@@ -40,6 +44,15 @@ public class Overlay {
         CIRCLE, RECTANGLE, ROUNDED_RECTANGLE, NO_HOLE
     }
 
+    /**
+     * {@link RenderMode#AUTO} - cut the hole on a hardware layer when the window is hardware accelerated, otherwise fall back to {@link RenderMode#ALPHA_MASK}
+     * {@link RenderMode#ALPHA_MASK} - always cut the hole on an alpha only bitmap the size of the screen, tinted with the background color when drawn
+     * {@link RenderMode#BITMAP} - always cut the hole on an ARGB_8888 bitmap the size of the screen
+     */
+    public enum RenderMode {
+        AUTO, ALPHA_MASK, BITMAP
+    }
+
     public Overlay() {
         this(true, Color.parseColor("#55000000"), Style.CIRCLE);
     }
@@ -111,6 +124,31 @@ public class Overlay {
         return this;
     }
 
+    /**
+     * Fade the overlay in when it is shown. The fade runs as a property animation on a hardware layer,
+     * so the overlay is rendered once and only composited while fading, unlike {@link #setEnterAnimation(Animation)}.
+     * Ignored when an enter animation is set.
+     *
+     * @param durationMs duration of the fade in, 0 to show the overlay at once (default)
+     * @return return {@link Overlay} instance for chaining purpose
+     */
+    public Overlay setFadeInDuration(long durationMs) {
+        mFadeInDuration = durationMs;
+        return this;
+    }
+
+    /**
+     * Fade the overlay out when it is cleaned up, on a hardware layer like {@link #setFadeInDuration(long)}.
+     * Ignored when an exit animation is set.
+     *
+     * @param durationMs duration of the fade out, 0 to remove the overlay at once (default)
+     * @return return {@link Overlay} instance for chaining purpose
+     */
+    public Overlay setFadeOutDuration(long durationMs) {
+        mFadeOutDuration = durationMs;
+        return this;
+    }
+
     /**
      * Set {@link Overlay#mOnClickOutsideTargetListener} for the {@link Overlay}
      *
@@ -199,4 +237,33 @@ public class Overlay {
         mRoundedCornerRadiusDp = roundedCornerRadiusDp;
         return this;
     }
+
+    /**
+     * This method sets how the hole is cut out from the overlay.
+     * The default {@link RenderMode#AUTO} avoids allocating a screen sized bitmap whenever hardware acceleration is available.
+     *
+     * @param renderMode {@link RenderMode#AUTO}, {@link RenderMode#ALPHA_MASK} or {@link RenderMode#BITMAP}
+     * @return {@link Overlay} instance for chaining purpose
+     */
+    public Overlay setRenderMode(RenderMode renderMode) {
+        mRenderMode = renderMode;
+        return this;
+    }
+
+    /**
+     * This method renders the overlay mask at a fraction of the screen resolution, it is scaled up with filtering when drawn.
+     * The area around the hole is still drawn at full resolution, so the cutout stays sharp.
+     * Useful on very large screens, where a full resolution mask costs a lot of memory and fill rate.
+     * When a factor above 1 is set, the hole is never cut on a hardware layer.
+     *
+     * @param factor 1 for a full resolution mask (default), 2 for half resolution, 4 for quarter resolution
+     * @return {@link Overlay} instance for chaining purpose
+     */
+    public Overlay setMaskDownsample(int factor) {
+        if (factor != 1 && factor != 2 && factor != 4) {
+            throw new IllegalArgumentException("Mask downsample factor must be 1, 2 or 4, but was " + factor);
+        }
+        mMaskDownsample = factor;
+        return this;
+    }
 }
@@ -0,0 +1,187 @@
+package tourguide.tourguide;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.core.view.ViewCompat;
+
+/**
+ * {@link OverlayGestureHandler} turns the touches on a {@link FrameLayoutWithHole} into the callbacks of its {@link Overlay}.
+ * A {@link TourGuide} keeps a single one for all its steps, it is only bound to the overlay and listeners of the current step,
+ * so starting a step does not build a new GestureDetector and new listeners.
+ * <p>
+ * MOVE events within the target are coalesced before they reach {@link Overlay#mOnTouchTargetListener}: the moves of one frame
+ * are batched into a single event, whose history holds the intermediate positions, and delivered on the next animation frame.
+ */
+class OverlayGestureHandler extends GestureDetector.SimpleOnGestureListener implements View.OnTouchListener {
+    private final TourGuide mTourGuide;
+    private final Activity mActivity;
+    private final GestureDetector mGestureDetector;
+
+    private FrameLayoutWithHole mFrameLayout;
+    private Overlay mOverlay;
+
+    /* moves waiting for the next frame, and whether the target listener consumed the last event it received */
+    private MotionEvent mPendingMove;
+    private MotionEvent.PointerCoords[] mPointerCoords = new MotionEvent.PointerCoords[0];
+    private boolean mTargetListenerConsumed;
+    private boolean mFlushScheduled;
+    private boolean mInTouch;
+
+    private final Runnable mFlushPendingMove = new Runnable() {
+        @Override
+        public void run() {
+            mFlushScheduled = false;
+            flushPendingMove();
+        }
+    };
+
+    OverlayGestureHandler(TourGuide tourGuide, Activity activity) {
+        mTourGuide = tourGuide;
+        mActivity = activity;
+        mGestureDetector = new GestureDetector(activity, this);
+    }
+
+    /**
+     * Point the handler to the overlay of the current step, whatever gesture was going on is dropped
+     *
+     * @param frameLayout overlay view, null to unbind
+     * @param overlay     overlay holding the listeners, null to unbind
+     */
+    void bind(FrameLayoutWithHole frameLayout, Overlay overlay) {
+        reset();
+        mFrameLayout = frameLayout;
+        mOverlay = overlay;
+    }
+
+    private void reset() {
+        if (mFrameLayout != null && mFlushScheduled) {
+            mFrameLayout.removeCallbacks(mFlushPendingMove);
+        }
+        mFlushScheduled = false;
+        if (mPendingMove != null) {
+            mPendingMove.recycle();
+            mPendingMove = null;
+        }
+        mTargetListenerConsumed = false;
+
+        if (mInTouch) {
+            // unbound from one of its own callbacks, e.g. a click outside that cleans up the tour, the detector finishes the event by itself
+            return;
+        }
+        long now = SystemClock.uptimeMillis();
+        MotionEvent cancel = MotionEvent.obtain(now, now, MotionEvent.ACTION_CANCEL, 0, 0, 0);
+        mGestureDetector.onTouchEvent(cancel);
+        cancel.recycle();
+    }
+
+    @Override
+    public boolean onTouch(View v, MotionEvent event) {
+        if (mOverlay == null || mFrameLayout == null)
+            return false;
+
+        mInTouch = true;
+        try {
+            return handleTouch(v, event);
+        } finally {
+            mInTouch = false;
+        }
+    }
+
+    private boolean handleTouch(View v, MotionEvent event) {
+        if (mOverlay.mOnTouchTargetListener != null) {
+            if (event.getActionMasked() == MotionEvent.ACTION_MOVE && mFrameLayout.isWithinTargetBoundary(event)) {
+                coalesceMove(event);
+                // the listener cannot answer for a move it has not received yet, so its answer to the previous event is used
+                if (mTargetListenerConsumed)
+                    return true;
+            } else {
+                // keep the order of the events, the pending moves go first
+                flushPendingMove();
+                if (mFrameLayout.isWithinTargetBoundary(event)) {
+                    mTargetListenerConsumed = mOverlay.mOnTouchTargetListener.onTouch(v, event);
+                    if (mTargetListenerConsumed)
+                        return true;
+                }
+            }
+        }
+        return mGestureDetector.onTouchEvent(event);
+    }
+
+    private void coalesceMove(MotionEvent event) {
+        if (mPendingMove != null && mPendingMove.getPointerCount() != event.getPointerCount()) {
+            flushPendingMove();
+        }
+        if (mPendingMove == null) {
+            mPendingMove = MotionEvent.obtain(event);
+        } else {
+            int pointerCount = event.getPointerCount();
+            if (mPointerCoords.length < pointerCount) {
+                MotionEvent.PointerCoords[] pointerCoords = new MotionEvent.PointerCoords[pointerCount];
+                System.arraycopy(mPointerCoords, 0, pointerCoords, 0, mPointerCoords.length);
+                for (int i = mPointerCoords.length; i < pointerCount; i++) {
+                    pointerCoords[i] = new MotionEvent.PointerCoords();
+                }
+                mPointerCoords = pointerCoords;
+            }
+            // the historical samples of the incoming event are folded in as well, so no position is lost
+            for (int h = 0; h < event.getHistorySize(); h++) {
+                for (int i = 0; i < pointerCount; i++) {
+                    event.getHistoricalPointerCoords(i, h, mPointerCoords[i]);
+                }
+                mPendingMove.addBatch(event.getHistoricalEventTime(h), mPointerCoords, event.getMetaState());
+            }
+            for (int i = 0; i < pointerCount; i++) {
+                event.getPointerCoords(i, mPointerCoords[i]);
+            }
+            mPendingMove.addBatch(event.getEventTime(), mPointerCoords, event.getMetaState());
+        }
+        if (!mFlushScheduled) {
+            mFlushScheduled = true;
+            ViewCompat.postOnAnimation(mFrameLayout, mFlushPendingMove);
+        }
+    }
+
+    private void flushPendingMove() {
+        if (mPendingMove == null)
+            return;
+        MotionEvent move = mPendingMove;
+        mPendingMove = null;
+        if (mOverlay != null && mOverlay.mOnTouchTargetListener != null) {
+            mTargetListenerConsumed = mOverlay.mOnTouchTargetListener.onTouch(mFrameLayout, move);
+        }
+        move.recycle();
+    }
+
+    @Override
+    public void onLongPress(MotionEvent e) {
+        if (mOverlay == null)
+            return;
+        if (mFrameLayout.isWithinTargetBoundary(e) && mOverlay.mOnLongClickTargetListener != null) {
+            mOverlay.mOnLongClickTargetListener.onLongClick(mFrameLayout);
+        }
+    }
+
+    @Override
+    public boolean onSingleTapUp(MotionEvent e) {
+        if (mOverlay == null)
+            return false;
+        boolean withinTarget = mFrameLayout.isWithinTargetBoundary(e);
+        if (withinTarget && mOverlay.mOnClickTargetListener != null) {
+            mOverlay.mOnClickTargetListener.onClick(mFrameLayout);
+            return true;
+        } else if (mOverlay.mOnClickOutsideTargetListener != null) {
+            mOverlay.mOnClickOutsideTargetListener.onClick(mFrameLayout);
+            return true;
+        } else if (!withinTarget && mOverlay.mClickOutsideTargetToCancel) {
+            if (mOverlay.mOnClickOutsideCancelListener != null)
+                mOverlay.mOnClickOutsideCancelListener.onCancel(mActivity, mTourGuide);
+            else
+                mTourGuide.cleanUp();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,140 @@
+package tourguide.tourguide;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Region;
+import android.os.Build;
+
+/**
+ * {@link OverlayMask} is the bitmap backed rendering of the overlay, used by {@link FrameLayoutWithHole} whenever the hole cannot be cut on a
+ * hardware layer. The bitmap is borrowed from {@link EraserBitmapPool}, and only rendered again after {@link #invalidate()}.
+ * <p>
+ * With a downsample factor above 1 the mask is rendered at a fraction of the resolution and scaled up with filtering when it is drawn.
+ * The area around the hole is then drawn at full resolution on its own, so the edge of the cutout stays sharp.
+ */
+class OverlayMask {
+    private final Paint mEraser;
+    private final Paint mMaskPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Canvas mCanvas = new Canvas();
+    private final Rect mHoleRect = new Rect();
+    private final RectF mHoleRectF = new RectF();
+
+    private Bitmap mBitmap;
+    private int mDownsample = 1;
+    private boolean mDirty = true;
+
+    /**
+     * @param eraser paint used to cut out the hole, with a CLEAR xfermode
+     */
+    OverlayMask(Paint eraser) {
+        mEraser = eraser;
+    }
+
+    /**
+     * Make sure a bitmap matching the given size and config is held, the previous one goes back to the pool if it does not match
+     *
+     * @param width      width of the overlay, in pixels
+     * @param height     height of the overlay, in pixels
+     * @param config     {@link Bitmap.Config#ALPHA_8} or {@link Bitmap.Config#ARGB_8888}
+     * @param downsample 1 for a full resolution mask, 2 or 4 for a half or quarter resolution mask
+     * @return true when a new bitmap had to be acquired
+     */
+    boolean configure(int width, int height, Bitmap.Config config, int downsample) {
+        int maskWidth = Math.max(1, (width + downsample - 1) / downsample);
+        int maskHeight = Math.max(1, (height + downsample - 1) / downsample);
+        if (mBitmap != null && mDownsample == downsample && mBitmap.getWidth() == maskWidth && mBitmap.getHeight() == maskHeight
+            && mBitmap.getConfig() == config) {
+            return false;
+        }
+        release();
+        mDownsample = downsample;
+        mBitmap = EraserBitmapPool.getInstance().acquire(maskWidth, maskHeight, config);
+        mCanvas.setBitmap(mBitmap);
+        mCanvas.setMatrix(null);
+        if (downsample > 1) {
+            mCanvas.scale(1f / downsample, 1f / downsample);
+        }
+        mDirty = true;
+        return true;
+    }
+
+    /**
+     * Render the mask again on the next draw
+     */
+    void invalidate() {
+        mDirty = true;
+    }
+
+    /**
+     * @return bytes held by the mask bitmap, 0 when not configured
+     */
+    int getByteCount() {
+        return mBitmap != null ? mBitmap.getByteCount() : 0;
+    }
+
+    /**
+     * Draw the overlay on the view canvas, rendering the mask first if it is dirty
+     *
+     * @param canvas canvas of the view
+     * @param hole   hole to cut out, may be unresolved when there is no target
+     * @param color  overlay color
+     */
+    void draw(Canvas canvas, HoleGeometry hole, int color) {
+        boolean alphaMask = mBitmap.getConfig() == Bitmap.Config.ALPHA_8;
+        if (mDirty) {
+            mBitmap.eraseColor(Color.TRANSPARENT);
+            // an alpha mask is rendered fully opaque, the overlay color and its alpha are applied by mMaskPaint when compositing
+            mCanvas.drawColor(alphaMask ? Color.BLACK : color);
+            hole.draw(mCanvas, mEraser);
+            mDirty = false;
+        }
+        // an ARGB mask already holds the color, the paint is only there for the filtering
+        mMaskPaint.setColor(alphaMask ? color : Color.BLACK);
+
+        if (mDownsample == 1) {
+            canvas.drawBitmap(mBitmap, 0, 0, mMaskPaint);
+            return;
+        }
+
+        boolean sharpHole = hole.isResolved() && hole.mShape != Overlay.Style.NO_HOLE;
+        int saveCount = canvas.save();
+        if (sharpHole) {
+            // leave the hole area out of the upscaled mask, it is drawn at full resolution below
+            hole.mBounds.roundOut(mHoleRect);
+            mHoleRect.inset(-mDownsample, -mDownsample);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                canvas.clipOutRect(mHoleRect);
+            } else {
+                //noinspection deprecation
+                canvas.clipRect(mHoleRect, Region.Op.DIFFERENCE);
+            }
+        }
+        canvas.scale(mDownsample, mDownsample);
+        canvas.drawBitmap(mBitmap, 0, 0, mMaskPaint);
+        canvas.restoreToCount(saveCount);
+
+        if (sharpHole) {
+            mHoleRectF.set(mHoleRect);
+            //noinspection deprecation
+            int layerSaveCount = canvas.saveLayer(mHoleRectF, null, Canvas.ALL_SAVE_FLAG);
+            canvas.drawColor(color);
+            hole.draw(canvas, mEraser);
+            canvas.restoreToCount(layerSaveCount);
+        }
+    }
+
+    /**
+     * Give the bitmap back to {@link EraserBitmapPool}
+     */
+    void release() {
+        if (mBitmap == null)
+            return;
+        mCanvas.setBitmap(null);
+        EraserBitmapPool.getInstance().release(mBitmap);
+        mBitmap = null;
+    }
+}
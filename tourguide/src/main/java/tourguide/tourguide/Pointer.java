@@ -9,6 +9,7 @@ import android.view.Gravity;
 public class Pointer {
     public int mGravity = Gravity.CENTER;
     public int mColor = Color.WHITE;
+    public boolean mRenderThreadAnimation = false;
 
     public Pointer() {
         this(Gravity.CENTER, Color.parseColor("#FFFFFF"));
@@ -38,4 +39,16 @@ public class Pointer {
         mGravity = gravity;
         return this;
     }
+
+    /**
+     * Animate the pointer on the RenderThread, so it keeps moving smoothly while the UI thread is busy, e.g. loading data right after
+     * {@link TourGuide#playOn}. Only available from API 25, older versions keep animating on the UI thread.
+     * Swipes then travel a fixed 180dp instead of half the screen width.
+     * @param renderThreadAnimation true to animate on the RenderThread when possible
+     * @return return Pointer instance for chaining purpose
+     */
+    public Pointer setRenderThreadAnimation(boolean renderThreadAnimation){
+        mRenderThreadAnimation = renderThreadAnimation;
+        return this;
+    }
 }
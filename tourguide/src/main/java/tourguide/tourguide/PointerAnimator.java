@@ -0,0 +1,97 @@
+package tourguide.tourguide;
+
+/**
+ * {@link PointerAnimator} loops a {@link TourGuide.Technique} on a {@link PointerRenderer}. It owns no animator of its own:
+ * the shared {@link PointerClock} advances it every frame, it samples the {@link PointerKeyframes} of the technique and sets the result
+ * on the pointer directly, without property names, reflection, listeners chaining animator sets or allocation.
+ * <p>
+ * The animator only counts the frames it is registered for, so a hidden pointer leaves the clock and picks up where it left off
+ * once it is visible again. It is reused when the technique changes, e.g. from one step of a {@link Sequence} to the next.
+ */
+class PointerAnimator {
+    private final PointerRenderer mPointer;
+    private final PointerClock mClock;
+    private PointerKeyframes mKeyframes;
+
+    private boolean mRunning;
+    private boolean mVisible = true;
+    private long mStartDelay;
+    /* time the animator has been advanced for since it started, start delay included */
+    private long mElapsed;
+    /* time of the last frame, -1 until the first frame after starting or becoming visible */
+    private long mLastFrameTime = -1;
+
+    PointerAnimator(PointerRenderer pointer) {
+        mPointer = pointer;
+        mClock = PointerClock.getInstance();
+    }
+
+    /**
+     * Start looping a technique, replacing the one that was running
+     *
+     * @param technique  technique to animate, null is the same as {@link TourGuide.Technique#CLICK}
+     * @param distance   distance travelled by the swiping techniques, in pixels
+     * @param startDelay delay before the first loop, during which the pointer is hidden
+     */
+    void start(TourGuide.Technique technique, float distance, long startDelay) {
+        mKeyframes = PointerKeyframes.forTechnique(technique, distance);
+        mStartDelay = startDelay;
+        mElapsed = 0;
+        mLastFrameTime = -1;
+        mRunning = true;
+        apply(0);
+        updateRegistration();
+    }
+
+    void cancel() {
+        mRunning = false;
+        updateRegistration();
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * @param visible false while the pointer cannot be seen, the animator then stops receiving frames until it is visible again
+     */
+    void setVisible(boolean visible) {
+        if (mVisible == visible)
+            return;
+        mVisible = visible;
+        updateRegistration();
+    }
+
+    private void updateRegistration() {
+        if (mRunning && mVisible) {
+            mClock.add(this);
+        } else {
+            // the gap while not registered does not count, the next frame resumes from the same play time
+            mLastFrameTime = -1;
+            mClock.remove(this);
+        }
+    }
+
+    /**
+     * Called by {@link PointerClock} on every frame the animator is registered for
+     *
+     * @param frameTimeMillis time of the frame, in milliseconds
+     */
+    void doFrame(long frameTimeMillis) {
+        if (mLastFrameTime >= 0 && frameTimeMillis > mLastFrameTime) {
+            mElapsed += frameTimeMillis - mLastFrameTime;
+        }
+        mLastFrameTime = frameTimeMillis;
+
+        long playTime = mElapsed - mStartDelay;
+        apply(playTime > 0 ? playTime % mKeyframes.getCycleDuration() : 0);
+    }
+
+    private void apply(long playTime) {
+        float scale = mKeyframes.valueAt(PointerKeyframes.SCALE, playTime);
+        mPointer.setAlpha(mKeyframes.valueAt(PointerKeyframes.ALPHA, playTime));
+        mPointer.setScale(scale, scale);
+        mPointer.setTranslation(mKeyframes.valueAt(PointerKeyframes.TRANSLATION_X, playTime),
+            mKeyframes.valueAt(PointerKeyframes.TRANSLATION_Y, playTime));
+    }
+}
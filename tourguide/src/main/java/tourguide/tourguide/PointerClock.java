@@ -0,0 +1,109 @@
+package tourguide.tourguide;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.animation.AnimationUtils;
+
+import java.util.ArrayList;
+
+/**
+ * {@link PointerClock} is the single frame clock shared by every running {@link PointerAnimator} of the process. It posts one
+ * Choreographer frame callback per frame, or a Handler message below Jelly Bean, and advances all the registered animators from it,
+ * so ten pointers on screen cost one callback per frame instead of ten animators.
+ * <p>
+ * Only animators whose pointer can be seen are registered, the clock stops posting as soon as the last one leaves and starts again
+ * with the next one. It is used from the main thread only.
+ */
+final class PointerClock {
+    /* frame interval of the Handler fallback, Choreographer follows the display instead */
+    private static final long FALLBACK_FRAME_DELAY = 16;
+
+    private static PointerClock sInstance;
+
+    private final ArrayList<PointerAnimator> mAnimators = new ArrayList<PointerAnimator>();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private boolean mScheduled;
+
+    private final Runnable mFallbackTick = new Runnable() {
+        @Override
+        public void run() {
+            onFrame(AnimationUtils.currentAnimationTimeMillis());
+        }
+    };
+    private Choreographer.FrameCallback mFrameCallback;
+
+    private PointerClock() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    onFrame(frameTimeNanos / 1000000);
+                }
+            };
+        }
+    }
+
+    static PointerClock getInstance() {
+        if (sInstance == null) {
+            sInstance = new PointerClock();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Start advancing an animator from the next frame on, registering it twice has no effect
+     */
+    void add(PointerAnimator animator) {
+        if (mAnimators.contains(animator))
+            return;
+        mAnimators.add(animator);
+        scheduleFrame();
+    }
+
+    /**
+     * Stop advancing an animator, the clock stops once no animator is left
+     */
+    void remove(PointerAnimator animator) {
+        mAnimators.remove(animator);
+        if (mAnimators.isEmpty()) {
+            unscheduleFrame();
+        }
+    }
+
+    private void onFrame(long frameTimeMillis) {
+        mScheduled = false;
+        // backwards, so an animator finishing or removing another one during its frame does not shift the ones left to advance
+        for (int i = mAnimators.size() - 1; i >= 0; i--) {
+            if (i < mAnimators.size()) {
+                mAnimators.get(i).doFrame(frameTimeMillis);
+            }
+        }
+        if (!mAnimators.isEmpty()) {
+            scheduleFrame();
+        }
+    }
+
+    private void scheduleFrame() {
+        if (mScheduled)
+            return;
+        mScheduled = true;
+        if (mFrameCallback != null) {
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        } else {
+            mHandler.postDelayed(mFallbackTick, FALLBACK_FRAME_DELAY);
+        }
+    }
+
+    private void unscheduleFrame() {
+        if (!mScheduled)
+            return;
+        mScheduled = false;
+        if (mFrameCallback != null) {
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+        } else {
+            mHandler.removeCallbacks(mFallbackTick);
+        }
+    }
+}
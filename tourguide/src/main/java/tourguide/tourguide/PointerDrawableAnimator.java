@@ -0,0 +1,166 @@
+package tourguide.tourguide;
+
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.drawable.AnimatedVectorDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.os.SystemClock;
+
+/**
+ * {@link PointerDrawableAnimator} is the RenderThread mode of the pointer animation, see {@link Pointer#setRenderThreadAnimation(boolean)}.
+ * The technique is an AnimatedVectorDrawable looping the same timeline as {@link PointerKeyframes}. From Nougat MR1 on, an animated
+ * vector drawn on a hardware accelerated canvas is animated by the RenderThread, so the pointer keeps moving while the UI thread is busy:
+ * the UI thread only starts and stops the drawable.
+ * <p>
+ * The drawable is defined in dp, swipes therefore travel a fixed 180dp, half the width of a typical phone, instead of half the screen.
+ * Swipes in other directions than right are drawn rotated.
+ * <p>
+ * A drawable cannot be resumed in the middle of its loop, it always starts from the beginning. Like {@link PointerAnimator}, the animator
+ * therefore counts the time the pointer has been visible for: once resumed, the drawable waits for the rest of the interrupted loop, hidden
+ * since every loop starts and ends transparent, and starts the next loop when it would have without the pause.
+ */
+class PointerDrawableAnimator {
+    /* size of the drawables in dp, the pointer is centered on the first 48dp */
+    private static final int POINTER_SIZE_DP = 48;
+    private static final int SWIPE_DISTANCE_DP = 180;
+
+    private final FrameLayoutWithHole mHost;
+    private final PointerRenderer mPointer;
+    private final float mDensity;
+
+    private AnimatedVectorDrawable mDrawable;
+    private boolean mRunning;
+    private boolean mVisible = true;
+    private long mStartDelay;
+    private long mLoopDuration;
+    /* time the pointer has been visible for since it started, start delay included, up to the last pause */
+    private long mPlayTime;
+    /* uptime at which the pointer became visible, -1 while it is paused */
+    private long mVisibleSince = -1;
+
+    private final Runnable mStart = new Runnable() {
+        @Override
+        public void run() {
+            if (mRunning && mVisible && mDrawable != null) {
+                mDrawable.start();
+            }
+        }
+    };
+
+    PointerDrawableAnimator(FrameLayoutWithHole host, PointerRenderer pointer, float density) {
+        mHost = host;
+        mPointer = pointer;
+        mDensity = density;
+    }
+
+    /**
+     * @return true when the RenderThread can run the animation, on older API levels {@link PointerAnimator} is used instead
+     */
+    static boolean isSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.N_MR1;
+    }
+
+    /**
+     * Start looping a technique, replacing the one that was running
+     *
+     * @param technique  technique to animate, null is the same as {@link TourGuide.Technique#CLICK}
+     * @param color      color of the pointer
+     * @param startDelay delay before the first loop, during which the pointer is hidden
+     */
+    void start(TourGuide.Technique technique, int color, long startDelay) {
+        cancel();
+
+        boolean click = technique == null || technique == TourGuide.Technique.CLICK;
+        Drawable drawable = mHost.getContext().getDrawable(click ? R.drawable.tourguide_pointer_click : R.drawable.tourguide_pointer_swipe);
+        if (!(drawable instanceof AnimatedVectorDrawable))
+            return;
+        mDrawable = (AnimatedVectorDrawable) drawable.mutate();
+        // the fill is white and the shadow black, multiplying tints the fill and leaves the shadow as it is
+        mDrawable.setColorFilter(new PorterDuffColorFilter(color, PorterDuff.Mode.MULTIPLY));
+        int half = Math.round(POINTER_SIZE_DP * mDensity / 2);
+        int length = click ? half : Math.round((POINTER_SIZE_DP / 2 + SWIPE_DISTANCE_DP) * mDensity);
+        mDrawable.setBounds(-half, -half, length, half);
+        // only animated on the UI thread when the canvas is not hardware accelerated
+        mDrawable.setCallback(mHost);
+
+        mPointer.setDrawable(mDrawable, getRotation(technique));
+        // the drawables loop the same timeline as the keyframes, the distance does not change its duration
+        mLoopDuration = PointerKeyframes.forTechnique(technique, 0).getCycleDuration();
+        mStartDelay = startDelay;
+        mPlayTime = 0;
+        mRunning = true;
+        if (mVisible) {
+            mVisibleSince = SystemClock.uptimeMillis();
+            scheduleStart();
+        }
+    }
+
+    /**
+     * Start the drawable once the start delay and the loop interrupted by the last pause are over
+     */
+    private void scheduleStart() {
+        long loopTime = mPlayTime - mStartDelay;
+        long delay;
+        if (loopTime < 0) {
+            delay = -loopTime;
+        } else {
+            long phase = loopTime % mLoopDuration;
+            delay = phase == 0 ? 0 : mLoopDuration - phase;
+        }
+        mHost.postOnAnimationDelayed(mStart, delay);
+    }
+
+    void cancel() {
+        mRunning = false;
+        mVisibleSince = -1;
+        mHost.removeCallbacks(mStart);
+        if (mDrawable != null) {
+            mDrawable.stop();
+            mDrawable.setCallback(null);
+            mDrawable = null;
+            mPointer.setDrawable(null, 0);
+        }
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * @param visible false while the pointer cannot be seen, the drawable is then stopped until it is visible again and the time it
+     *                stays stopped does not count
+     */
+    void setVisible(boolean visible) {
+        if (mVisible == visible)
+            return;
+        mVisible = visible;
+        if (!mRunning || mDrawable == null)
+            return;
+        if (visible) {
+            mVisibleSince = SystemClock.uptimeMillis();
+            scheduleStart();
+        } else {
+            mPlayTime += SystemClock.uptimeMillis() - mVisibleSince;
+            mVisibleSince = -1;
+            mHost.removeCallbacks(mStart);
+            // back to the first frame of the loop, where the pointer is transparent, until the next loop starts
+            mDrawable.reset();
+        }
+    }
+
+    private static float getRotation(TourGuide.Technique technique) {
+        if (technique == null)
+            return 0;
+        switch (technique) {
+            case HORIZONTAL_LEFT:
+                return 180;
+            case VERTICAL_UPWARD:
+                return 270;
+            case VERTICAL_DOWNWARD:
+                return 90;
+            default:
+                return 0;
+        }
+    }
+}
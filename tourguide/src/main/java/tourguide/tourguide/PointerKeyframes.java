@@ -0,0 +1,129 @@
+package tourguide.tourguide;
+
+/**
+ * {@link PointerKeyframes} is the precomputed timeline of one {@link TourGuide.Technique}: for each animated channel of the pointer,
+ * a list of keyframes over one loop. Between two keyframes the value is eased in and out, like the ObjectAnimators it replaces,
+ * and a channel holds its value when two consecutive keyframes are equal.
+ * <p>
+ * Sampling is a walk over a couple of primitive arrays, so driving the pointer from a single animator does not allocate.
+ */
+final class PointerKeyframes {
+    static final int ALPHA = 0;
+    static final int SCALE = 1;
+    static final int TRANSLATION_X = 2;
+    static final int TRANSLATION_Y = 3;
+    static final int CHANNEL_COUNT = 4;
+
+    private static final long FADE_IN_DURATION = 800;
+    private static final long SCALE_DOWN_DURATION = 800;
+    private static final long CLICK_FADE_OUT_DURATION = 800;
+    private static final long CLICK_PAUSE_DURATION = 1000;
+    private static final long SWIPE_DURATION = 2000;
+    private static final float PRESSED_SCALE = 0.85f;
+
+    private final long mCycleDuration;
+    private final long[][] mTimes = new long[CHANNEL_COUNT][];
+    private final float[][] mValues = new float[CHANNEL_COUNT][];
+
+    private PointerKeyframes(long cycleDuration) {
+        mCycleDuration = cycleDuration;
+    }
+
+    /**
+     * Build the timeline of a technique
+     *
+     * @param technique technique to animate, null is the same as {@link TourGuide.Technique#CLICK}
+     * @param distance  distance travelled by the swiping techniques, in pixels
+     * @return the keyframes of one loop
+     */
+    static PointerKeyframes forTechnique(TourGuide.Technique technique, float distance) {
+        if (technique == null || technique == TourGuide.Technique.CLICK) {
+            return click();
+        }
+        switch (technique) {
+            case HORIZONTAL_LEFT:
+                return swipe(-distance, 0);
+            case HORIZONTAL_RIGHT:
+                return swipe(distance, 0);
+            case VERTICAL_UPWARD:
+                return swipe(0, -distance);
+            default:
+                return swipe(0, distance);
+        }
+    }
+
+    /**
+     * fade in, press, release while fading out, then rest
+     */
+    private static PointerKeyframes click() {
+        long pressed = FADE_IN_DURATION;
+        long released = pressed + SCALE_DOWN_DURATION;
+        long faded = released + CLICK_FADE_OUT_DURATION;
+        long end = faded + CLICK_PAUSE_DURATION;
+
+        PointerKeyframes keyframes = new PointerKeyframes(end);
+        keyframes.set(ALPHA, new long[]{0, pressed, released, faded, end}, new float[]{0f, 1f, 1f, 0f, 0f});
+        keyframes.set(SCALE, new long[]{0, pressed, released, faded, end}, new float[]{1f, 1f, PRESSED_SCALE, 1f, 1f});
+        keyframes.set(TRANSLATION_X, new long[]{0, end}, new float[]{0f, 0f});
+        keyframes.set(TRANSLATION_Y, new long[]{0, end}, new float[]{0f, 0f});
+        return keyframes;
+    }
+
+    /**
+     * fade in, press, then slide while fading out, the pointer is back in place when the loop starts over
+     */
+    private static PointerKeyframes swipe(float translationX, float translationY) {
+        long pressed = FADE_IN_DURATION;
+        long slide = pressed + SCALE_DOWN_DURATION;
+        long end = slide + SWIPE_DURATION;
+
+        PointerKeyframes keyframes = new PointerKeyframes(end);
+        keyframes.set(ALPHA, new long[]{0, pressed, slide, end}, new float[]{0f, 1f, 1f, 0f});
+        keyframes.set(SCALE, new long[]{0, pressed, slide, end}, new float[]{1f, 1f, PRESSED_SCALE, PRESSED_SCALE});
+        keyframes.set(TRANSLATION_X, new long[]{0, slide, end}, new float[]{0f, 0f, translationX});
+        keyframes.set(TRANSLATION_Y, new long[]{0, slide, end}, new float[]{0f, 0f, translationY});
+        return keyframes;
+    }
+
+    private void set(int channel, long[] times, float[] values) {
+        mTimes[channel] = times;
+        mValues[channel] = values;
+    }
+
+    /**
+     * @return duration of one loop, in milliseconds
+     */
+    long getCycleDuration() {
+        return mCycleDuration;
+    }
+
+    /**
+     * @param channel  {@link #ALPHA}, {@link #SCALE}, {@link #TRANSLATION_X} or {@link #TRANSLATION_Y}
+     * @param playTime time within the loop, in milliseconds
+     * @return value of the channel at that time
+     */
+    float valueAt(int channel, long playTime) {
+        long[] times = mTimes[channel];
+        float[] values = mValues[channel];
+        if (playTime <= times[0]) {
+            return values[0];
+        }
+        for (int i = 1; i < times.length; i++) {
+            if (playTime < times[i]) {
+                float from = values[i - 1];
+                float to = values[i];
+                if (from == to) {
+                    return from;
+                }
+                float fraction = (playTime - times[i - 1]) / (float) (times[i] - times[i - 1]);
+                return from + (to - from) * accelerateDecelerate(fraction);
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    /* the curve of AccelerateDecelerateInterpolator, the default interpolator of the ObjectAnimators this timeline replaces */
+    private static float accelerateDecelerate(float fraction) {
+        return (float) (Math.cos((fraction + 1) * Math.PI) / 2.0) + 0.5f;
+    }
+}
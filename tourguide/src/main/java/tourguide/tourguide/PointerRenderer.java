@@ -0,0 +1,281 @@
+package tourguide.tourguide;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RadialGradient;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.drawable.Drawable;
+import android.view.Gravity;
+
+/**
+ * {@link PointerRenderer} draws the {@link Pointer} directly on the canvas of {@link FrameLayoutWithHole}: a mini floating action button
+ * look alike, a colored circle over a soft shadow. Its size is known up front, so the pointer is placed as soon as the hole is resolved
+ * and shows up in the same frame as the overlay, without any view to add, measure or lay out.
+ * <p>
+ * Alpha, scale and translation are set by {@link PointerAnimator}, each change only repaints the area the pointer covers before and after it.
+ * In the RenderThread mode a {@link PointerDrawableAnimator} hands over an animated drawable instead, which is drawn in place of the circle.
+ */
+class PointerRenderer {
+    static final int SIZE_DP = 40;
+    private static final float SHADOW_RADIUS_DP = 3.5f;
+    private static final float SHADOW_OFFSET_DP = 1.5f;
+    private static final int SHADOW_COLOR = 0x44000000;
+
+    private final FrameLayoutWithHole mHost;
+    private final float mRadius;
+    private final float mShadowRadius;
+    private final float mShadowOffset;
+    private final Paint mFillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mShadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private Pointer mPointer;
+    private boolean mLaidOut;
+    /* center of the pointer before translation, in the coordinates of the overlay */
+    private float mCenterX;
+    private float mCenterY;
+
+    private float mAlpha = 1f;
+    private float mScaleX = 1f;
+    private float mScaleY = 1f;
+    private float mTranslationX;
+    private float mTranslationY;
+
+    /* animated drawable replacing the circle, its bounds are relative to the center of the pointer */
+    private Drawable mDrawable;
+    private float mDrawableRotation;
+
+    /* area covered by the pointer as drawn, kept to repaint only what changes */
+    private final RectF mDrawnBounds = new RectF();
+    private final RectF mPreviousBounds = new RectF();
+
+    PointerRenderer(FrameLayoutWithHole host, float density) {
+        mHost = host;
+        mRadius = SIZE_DP * density / 2;
+        mShadowRadius = SHADOW_RADIUS_DP * density;
+        mShadowOffset = SHADOW_OFFSET_DP * density;
+        // the gradient is centered on the origin and the canvas is translated instead, so moving the pointer never builds a new shader
+        float outerRadius = mRadius + mShadowRadius;
+        mShadowPaint.setShader(new RadialGradient(0, 0, outerRadius,
+            new int[]{SHADOW_COLOR, SHADOW_COLOR, Color.TRANSPARENT},
+            new float[]{0f, (mRadius - mShadowRadius / 2) / outerRadius, 1f},
+            Shader.TileMode.CLAMP));
+    }
+
+    /**
+     * @return the side of the square the pointer is drawn in, shadow included
+     */
+    int getSize() {
+        return (int) Math.ceil(2 * (mRadius + mShadowRadius));
+    }
+
+    /**
+     * @param pointer pointer to draw, null to draw none
+     */
+    void setPointer(Pointer pointer) {
+        mPointer = pointer;
+        resetTransform();
+        invalidateDrawn();
+    }
+
+    boolean hasPointer() {
+        return mPointer != null;
+    }
+
+    Pointer getPointer() {
+        return mPointer;
+    }
+
+    /**
+     * Draw an animated drawable instead of the circle, the drawable animates itself and alpha, scale and translation are not applied
+     *
+     * @param drawable drawable with bounds relative to the center of the pointer, null to draw the circle again
+     * @param rotation rotation of the drawable around the center of the pointer, in degrees
+     */
+    void setDrawable(Drawable drawable, float rotation) {
+        if (drawable == mDrawable && rotation == mDrawableRotation)
+            return;
+        mDrawable = drawable;
+        mDrawableRotation = rotation;
+        invalidateDrawn();
+    }
+
+    boolean isDrawable(Drawable drawable) {
+        return drawable != null && drawable == mDrawable;
+    }
+
+    /**
+     * Repaint the area of the drawable, for a drawable animated on the UI thread
+     */
+    void invalidateDrawable() {
+        if (mDrawnBounds.right > mDrawnBounds.left) {
+            mHost.invalidateDamage(mDrawnBounds, mDrawnBounds);
+        }
+    }
+
+    /**
+     * Place the pointer on the targeted view according to {@link Pointer#mGravity}
+     *
+     * @param targetBounds bounds of the targeted view, in the coordinates of the overlay, null when there is no target
+     */
+    void layout(RectF targetBounds) {
+        if (targetBounds == null) {
+            mLaidOut = false;
+            invalidateDrawn();
+            return;
+        }
+        int gravity = mPointer != null ? mPointer.mGravity : Gravity.CENTER;
+        int size = getSize();
+        float left;
+        if ((gravity & Gravity.RIGHT) == Gravity.RIGHT) {
+            left = targetBounds.right - size;
+        } else if ((gravity & Gravity.LEFT) == Gravity.LEFT) {
+            left = targetBounds.left;
+        } else {
+            left = (int) (targetBounds.left + (targetBounds.right - targetBounds.left) / 2) - size / 2;
+        }
+        float top;
+        if ((gravity & Gravity.BOTTOM) == Gravity.BOTTOM) {
+            top = targetBounds.bottom - size;
+        } else if ((gravity & Gravity.TOP) == Gravity.TOP) {
+            top = targetBounds.top;
+        } else {
+            top = (int) (targetBounds.top + (targetBounds.bottom - targetBounds.top) / 2) - size / 2;
+        }
+        float centerX = left + size / 2f;
+        float centerY = top + size / 2f;
+        if (mLaidOut && centerX == mCenterX && centerY == mCenterY)
+            return;
+        mCenterX = centerX;
+        mCenterY = centerY;
+        mLaidOut = true;
+        invalidateDrawn();
+    }
+
+    void resetTransform() {
+        mAlpha = 1f;
+        mScaleX = 1f;
+        mScaleY = 1f;
+        mTranslationX = 0f;
+        mTranslationY = 0f;
+        invalidateDrawn();
+    }
+
+    void setAlpha(float alpha) {
+        if (alpha == mAlpha)
+            return;
+        mAlpha = alpha;
+        invalidateDrawn();
+    }
+
+    void setScale(float scaleX, float scaleY) {
+        if (scaleX == mScaleX && scaleY == mScaleY)
+            return;
+        mScaleX = scaleX;
+        mScaleY = scaleY;
+        invalidateDrawn();
+    }
+
+    void setTranslation(float translationX, float translationY) {
+        if (translationX == mTranslationX && translationY == mTranslationY)
+            return;
+        mTranslationX = translationX;
+        mTranslationY = translationY;
+        invalidateDrawn();
+    }
+
+    /**
+     * Draw the pointer, nothing is drawn without a pointer, a target, or when it is fully transparent
+     */
+    void draw(Canvas canvas) {
+        if (!isVisible())
+            return;
+
+        if (mDrawable != null) {
+            int saveCount = canvas.save();
+            canvas.translate(mCenterX, mCenterY);
+            canvas.rotate(mDrawableRotation);
+            mDrawable.draw(canvas);
+            canvas.restoreToCount(saveCount);
+            return;
+        }
+
+        int alpha = (int) (mAlpha * 255 + 0.5f);
+        mFillPaint.setColor(mPointer.mColor);
+        mFillPaint.setAlpha(Color.alpha(mPointer.mColor) * alpha / 255);
+        mShadowPaint.setAlpha(alpha);
+
+        int saveCount = canvas.save();
+        canvas.translate(mCenterX + mTranslationX, mCenterY + mTranslationY);
+        canvas.scale(mScaleX, mScaleY);
+        canvas.translate(0, mShadowOffset);
+        canvas.drawCircle(0, 0, mRadius + mShadowRadius, mShadowPaint);
+        canvas.translate(0, -mShadowOffset);
+        canvas.drawCircle(0, 0, mRadius, mFillPaint);
+        canvas.restoreToCount(saveCount);
+    }
+
+    private boolean isVisible() {
+        return mPointer != null && mLaidOut && (mDrawable != null || mAlpha > 0f);
+    }
+
+    /**
+     * Repaint the union of the area the pointer was drawn in and the area it is drawn in now
+     */
+    private void invalidateDrawn() {
+        mPreviousBounds.left = mDrawnBounds.left;
+        mPreviousBounds.top = mDrawnBounds.top;
+        mPreviousBounds.right = mDrawnBounds.right;
+        mPreviousBounds.bottom = mDrawnBounds.bottom;
+        boolean wasVisible = mPreviousBounds.right > mPreviousBounds.left;
+
+        if (isVisible() && mDrawable != null) {
+            setRotatedDrawableBounds(mDrawnBounds);
+        } else if (isVisible()) {
+            float halfWidth = (mRadius + mShadowRadius) * Math.abs(mScaleX);
+            float halfHeight = (mRadius + mShadowRadius) * Math.abs(mScaleY) + mShadowOffset;
+            float centerX = mCenterX + mTranslationX;
+            float centerY = mCenterY + mTranslationY;
+            mDrawnBounds.left = centerX - halfWidth;
+            mDrawnBounds.top = centerY - halfHeight;
+            mDrawnBounds.right = centerX + halfWidth;
+            mDrawnBounds.bottom = centerY + halfHeight;
+        } else {
+            mDrawnBounds.left = mDrawnBounds.top = mDrawnBounds.right = mDrawnBounds.bottom = 0;
+        }
+        boolean isVisible = mDrawnBounds.right > mDrawnBounds.left;
+
+        if (wasVisible && isVisible) {
+            mHost.invalidateDamage(mPreviousBounds, mDrawnBounds);
+        } else if (wasVisible) {
+            mHost.invalidateDamage(mPreviousBounds, mPreviousBounds);
+        } else if (isVisible) {
+            mHost.invalidateDamage(mDrawnBounds, mDrawnBounds);
+        }
+    }
+
+    /* bounds of the drawable turned by the rotation, a multiple of 90 degrees, and moved to the center of the pointer */
+    private void setRotatedDrawableBounds(RectF out) {
+        Rect bounds = mDrawable.getBounds();
+        float left = bounds.left;
+        float top = bounds.top;
+        float right = bounds.right;
+        float bottom = bounds.bottom;
+        int quarterTurns = ((Math.round(mDrawableRotation / 90f) % 4) + 4) % 4;
+        for (int i = 0; i < quarterTurns; i++) {
+            // (x, y) turns into (-y, x)
+            float previousLeft = left;
+            float previousRight = right;
+            left = -bottom;
+            right = -top;
+            top = previousLeft;
+            bottom = previousRight;
+        }
+        out.left = mCenterX + left;
+        out.top = mCenterY + top;
+        out.right = mCenterX + right;
+        out.bottom = mCenterY + bottom;
+    }
+}
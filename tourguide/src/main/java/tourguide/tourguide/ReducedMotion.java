@@ -0,0 +1,47 @@
+package tourguide.tourguide;
+
+import android.animation.ValueAnimator;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.os.Build;
+import android.provider.Settings;
+
+/**
+ * {@link ReducedMotion} tells whether the user asked for no motion. Android has no separate reduced motion flag: "Remove animations"
+ * in the accessibility settings sets the animator and the transition scales to 0, the developer options can set either of them.
+ * Either one at 0 means the user turned motion off, so a {@link TourGuide} skips creating animators and shows everything in its
+ * final state right away.
+ */
+final class ReducedMotion {
+
+    private ReducedMotion() {
+    }
+
+    /**
+     * @param context any context, only used to read the global settings
+     * @return true when animators are disabled on this device
+     */
+    static boolean isEnabled(Context context) {
+        ContentResolver resolver = context.getContentResolver();
+        if (getScale(resolver, true) == 0f)
+            return true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            return !ValueAnimator.areAnimatorsEnabled();
+        }
+        return getScale(resolver, false) == 0f;
+    }
+
+    /**
+     * @param transition true for the transition animation scale, false for the animator duration scale
+     * @return the scale set on the device, 1 when it was never changed
+     */
+    private static float getScale(ContentResolver resolver, boolean transition) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return Settings.Global.getFloat(resolver,
+                transition ? Settings.Global.TRANSITION_ANIMATION_SCALE : Settings.Global.ANIMATOR_DURATION_SCALE, 1f);
+        }
+        //noinspection deprecation
+        return Settings.System.getFloat(resolver,
+            transition ? Settings.System.TRANSITION_ANIMATION_SCALE : Settings.System.ANIMATOR_DURATION_SCALE, 1f);
+    }
+}
@@ -13,6 +13,8 @@ public class Sequence {
 
     ContinueMethod mContinueMethod;
     boolean mDisableTargetButton;
+    boolean mPersistentOverlay;
+    long mHoleMorphDuration;
     public int mCurrentSequence;
     ChainTourGuide mParentTourGuide;
 
@@ -30,6 +32,8 @@ public class Sequence {
         this.mDefaultPointer = builder.mDefaultPointer;
         this.mContinueMethod = builder.mContinueMethod;
         this.mCurrentSequence = builder.mCurrentSequence;
+        this.mPersistentOverlay = builder.mPersistentOverlay;
+        this.mHoleMorphDuration = builder.mHoleMorphDuration;
 
         // TODO: to be implemented
         this.mDisableTargetButton = builder.mDisableTargetButton;
@@ -104,6 +108,8 @@ public class Sequence {
         ContinueMethod mContinueMethod;
         int mCurrentSequence;
         boolean mDisableTargetButton;
+        boolean mPersistentOverlay;
+        long mHoleMorphDuration;
 
         public SequenceBuilder add(ChainTourGuide... tourGuideArray){
             mTourGuideArray = tourGuideArray;
@@ -143,6 +149,24 @@ public class Sequence {
             return this;
         }
 
+        /**
+         * @param persistentOverlay true to keep one overlay attached for the whole sequence, only its target, style, pointer and tooltip
+         *                          are swapped from one TourGuide to the next. This avoids removing and adding an overlay at every step.
+         */
+        public SequenceBuilder setPersistentOverlay(boolean persistentOverlay){
+            mPersistentOverlay = persistentOverlay;
+            return this;
+        }
+
+        /**
+         * @param durationMs when above 0, the hole moves and changes shape from one target to the next over this duration, and the overlay
+         *                   color is blended, instead of disappearing and reappearing. Only has effect with {@link #setPersistentOverlay(boolean)}.
+         */
+        public SequenceBuilder setHoleMorphDuration(long durationMs){
+            mHoleMorphDuration = durationMs;
+            return this;
+        }
+
         public Sequence build(){
             mCurrentSequence = 0;
             checkIfContinueMethodNull();
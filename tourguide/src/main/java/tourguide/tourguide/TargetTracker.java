@@ -0,0 +1,120 @@
+package tourguide.tourguide;
+
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.core.view.ViewCompat;
+
+/**
+ * {@link TargetTracker} keeps the hole, the pointer and the ToolTip of a {@link TourGuide} on its target. It is the only listener a guide
+ * registers for that: once per frame, right before the target's window draws, it samples where the target and the overlay are on screen.
+ * When something moved, the overlay resolves its hole again, which moves the pointer drawn with it, and the ToolTip is moved by translation,
+ * so following the target never requests another layout. The hints of a {@link ToolTipGroup} have no overlay, only their ToolTip follows.
+ * <p>
+ * Sampling reuses the same arrays, nothing is allocated per frame.
+ */
+class TargetTracker implements ViewTreeObserver.OnPreDrawListener {
+    private View mTarget;
+    private ViewTreeObserver mObserver;
+    private FrameLayoutWithHole mFrameLayout;
+    private View mToolTip;
+
+    private final int[] mTargetPos = new int[2];
+    private final int[] mOverlayPos = new int[2];
+    /* last sample, target x, y, width, height then overlay x, y */
+    private final int[] mLastSample = new int[6];
+    private boolean mHasSample;
+
+    /* target position the ToolTip margins were computed for */
+    private int mToolTipAnchorX;
+    private int mToolTipAnchorY;
+
+    /**
+     * Start following a target, whatever was followed before is dropped
+     *
+     * @param target      targeted view, null when the guide covers the whole window
+     * @param frameLayout overlay drawing the hole and the pointer, null when only a ToolTip follows the target
+     */
+    void track(View target, FrameLayoutWithHole frameLayout) {
+        stop();
+        if (target == null)
+            return;
+        mTarget = target;
+        mFrameLayout = frameLayout;
+        mObserver = target.getViewTreeObserver();
+        mObserver.addOnPreDrawListener(this);
+    }
+
+    /**
+     * Move a ToolTip along with the target
+     *
+     * @param toolTip view of the ToolTip, null when there is none
+     * @param anchorX x of the target on screen when the ToolTip was placed
+     * @param anchorY y of the target on screen when the ToolTip was placed
+     */
+    void setToolTip(View toolTip, int anchorX, int anchorY) {
+        mToolTip = toolTip;
+        mToolTipAnchorX = anchorX;
+        mToolTipAnchorY = anchorY;
+        if (toolTip != null) {
+            toolTip.setTranslationX(0);
+            toolTip.setTranslationY(0);
+        }
+    }
+
+    /**
+     * Stop following the target, called when the guide is cleaned up
+     */
+    void stop() {
+        if (mObserver != null) {
+            // the observer the listener went to may have been merged into the window's one since
+            if (mObserver.isAlive()) {
+                mObserver.removeOnPreDrawListener(this);
+            } else if (mTarget != null) {
+                mTarget.getViewTreeObserver().removeOnPreDrawListener(this);
+            }
+            mObserver = null;
+        }
+        mTarget = null;
+        mFrameLayout = null;
+        mToolTip = null;
+        mHasSample = false;
+    }
+
+    @Override
+    public boolean onPreDraw() {
+        if (mTarget == null || !ViewCompat.isAttachedToWindow(mTarget))
+            return true;
+
+        mTarget.getLocationOnScreen(mTargetPos);
+        if (mFrameLayout != null) {
+            if (!ViewCompat.isAttachedToWindow(mFrameLayout))
+                return true;
+            mFrameLayout.getLocationOnScreen(mOverlayPos);
+        }
+        if (mHasSample && !sampleChanged())
+            return true;
+        mHasSample = true;
+        mLastSample[0] = mTargetPos[0];
+        mLastSample[1] = mTargetPos[1];
+        mLastSample[2] = mTarget.getWidth();
+        mLastSample[3] = mTarget.getHeight();
+        mLastSample[4] = mOverlayPos[0];
+        mLastSample[5] = mOverlayPos[1];
+
+        if (mFrameLayout != null) {
+            mFrameLayout.onTargetMoved();
+        }
+        if (mToolTip != null) {
+            mToolTip.setTranslationX(mTargetPos[0] - mToolTipAnchorX);
+            mToolTip.setTranslationY(mTargetPos[1] - mToolTipAnchorY);
+        }
+        return true;
+    }
+
+    private boolean sampleChanged() {
+        return mLastSample[0] != mTargetPos[0] || mLastSample[1] != mTargetPos[1]
+            || mLastSample[2] != mTarget.getWidth() || mLastSample[3] != mTarget.getHeight()
+            || mLastSample[4] != mOverlayPos[0] || mLastSample[5] != mOverlayPos[1];
+    }
+}
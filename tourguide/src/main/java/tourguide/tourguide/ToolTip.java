@@ -1,10 +1,11 @@
 package tourguide.tourguide;
 
+import android.animation.TimeInterpolator;
+import android.app.Activity;
 import android.graphics.Color;
 import android.view.Gravity;
 import android.view.View;
 import android.view.ViewGroup;
-import android.view.animation.AlphaAnimation;
 import android.view.animation.Animation;
 import android.view.animation.BounceInterpolator;
 
@@ -16,6 +17,8 @@ public class ToolTip {
     protected int mBackgroundColor, mTitleColor, mDescriptionColor;
     protected int mTitleGravity, mDescriptionGravity;
     protected Animation mEnterAnimation, mExitAnimation;
+    protected long mFadeInDuration, mFadeOutDuration;
+    protected TimeInterpolator mFadeInInterpolator;
     protected boolean mShadow;
     protected int mGravity;
 
@@ -35,18 +38,15 @@ public class ToolTip {
         mTitleGravity = Gravity.CENTER;
         mDescriptionGravity = Gravity.CENTER;
 
-        mEnterAnimation = new AlphaAnimation(0f, 1f);
-        mEnterAnimation.setDuration(1000);
-        mEnterAnimation.setFillAfter(true);
-        mEnterAnimation.setInterpolator(new BounceInterpolator());
+        mFadeInDuration = 1000;
+        mFadeInInterpolator = new BounceInterpolator();
+        mFadeOutDuration = 0;
         mShadow = true;
         mWidth = -1;
 
         mGravity = Gravity.CENTER;
 
         mTooltipAndTargetViewOffset = 10;
-
-        // TODO: exit animation
     }
 
     /**
@@ -115,7 +115,7 @@ public class ToolTip {
     }
 
     /**
-     * Set enter animation
+     * Set enter animation, it replaces the default fade in
      *
      * @param enterAnimation
      * @return return ToolTip instance for chaining purpose
@@ -124,16 +124,59 @@ public class ToolTip {
         mEnterAnimation = enterAnimation;
         return this;
     }
+
     /**
-     * Set exit animation
+     * Set exit animation, it replaces the fade out
+     *
      * @param exitAnimation
      * @return return ToolTip instance for chaining purpose
      */
-    //    TODO:
-    //    public ToolTip setExitAnimation(Animation exitAnimation){
-    //        mExitAnimation = exitAnimation;
-    //        return this;
-    //    }
+    public ToolTip setExitAnimation(Animation exitAnimation) {
+        mExitAnimation = exitAnimation;
+        return this;
+    }
+
+    /**
+     * Set the duration of the fade in, which runs on a hardware layer so the ToolTip is only composited while fading.
+     * Ignored when an enter animation is set.
+     *
+     * @param durationMs duration of the fade in, 1000 by default, 0 to show the ToolTip at once
+     * @return return ToolTip instance for chaining purpose
+     */
+    public ToolTip setFadeInDuration(long durationMs) {
+        mFadeInDuration = durationMs;
+        return this;
+    }
+
+    /**
+     * Set the interpolator of the fade in
+     *
+     * @param interpolator a {@link BounceInterpolator} by default, null for a linear fade
+     * @return return ToolTip instance for chaining purpose
+     */
+    public ToolTip setFadeInInterpolator(TimeInterpolator interpolator) {
+        mFadeInInterpolator = interpolator;
+        return this;
+    }
+
+    /**
+     * Set the duration of the fade out, which runs on a hardware layer like the fade in.
+     * Ignored when an exit animation is set.
+     *
+     * @param durationMs duration of the fade out, 0 to remove the ToolTip at once (default)
+     * @return return ToolTip instance for chaining purpose
+     */
+    public ToolTip setFadeOutDuration(long durationMs) {
+        mFadeOutDuration = durationMs;
+        return this;
+    }
+
+    /**
+     * @return how long the ToolTip takes to show up, either the enter animation or the fade in
+     */
+    long getEnterDuration() {
+        return mEnterAnimation != null ? mEnterAnimation.getDuration() : mFadeInDuration;
+    }
 
     /**
      * Set the gravity, the setGravity is centered relative to the targeted button
@@ -187,4 +230,17 @@ public class ToolTip {
         mCustomView = view;
         return this;
     }
+
+    /**
+     * Measure the title and description on a background thread, so showing the ToolTip only attaches text that is already laid out.
+     * {@link TourGuide#setToolTip(ToolTip)} already does it, calling it earlier gives the measurement a head start, e.g. for
+     * the default ToolTip of a {@link Sequence} or long localized texts. Results are cached, showing the same texts again measures nothing.
+     *
+     * @param activity activity the ToolTip will be shown in
+     * @return return ToolTip instance for chaining purpose
+     */
+    public ToolTip precomputeText(Activity activity) {
+        ToolTipViewPool.get(activity).precomputeText(this);
+        return this;
+    }
 }
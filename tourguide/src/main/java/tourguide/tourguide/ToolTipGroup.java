@@ -0,0 +1,333 @@
+package tourguide.tourguide;
+
+import android.animation.Animator;
+import android.app.Activity;
+import android.graphics.Rect;
+import android.os.Build;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.FrameLayout;
+
+import androidx.core.view.ViewCompat;
+
+import java.util.ArrayList;
+
+/**
+ * {@link ToolTipGroup} shows several hints at once, a hint being a {@link ToolTip} next to its target, without overlay nor pointer.
+ * Instead of stacking several {@link TourGuide}, which place their ToolTips independently and lay the window out once each, the group
+ * places every ToolTip first, so that none covers another hint or its target, then adds them all to one container that joins the window in
+ * a single layout pass.
+ * <p>
+ * Placements are solved in the order the hints were added, each one avoiding the ToolTips placed before it and the targets of the others
+ * that are close enough to be covered.
+ * <p>
+ * The group waits for the targets to be attached to the window. Hints whose target is still not attached after
+ * {@link #ATTACH_TIMEOUT_MS} are dropped, and the others are shown.
+ */
+public class ToolTipGroup {
+    /* how long show() waits for every target to be attached */
+    static final long ATTACH_TIMEOUT_MS = 2000;
+
+    private final Activity mActivity;
+    private final ArrayList<Hint> mHints = new ArrayList<Hint>();
+    private final ToolTipPlacementSolver mPlacementSolver = new ToolTipPlacementSolver();
+    private final Rect mBounds = new Rect();
+    private final int[] mPos = new int[2];
+
+    /* holds the ToolTips of all the hints, null until the group is shown */
+    private FrameLayout mContainer;
+    private ViewTreeObserver.OnGlobalLayoutListener mPendingShow;
+    private final Runnable mAttachTimeout = new Runnable() {
+        @Override
+        public void run() {
+            if (mPendingShow == null)
+                return;
+            removePendingShow();
+            dropDetachedHints();
+            if (!mHints.isEmpty()) {
+                showHints();
+            }
+        }
+    };
+
+    public ToolTipGroup(Activity activity) {
+        mActivity = activity;
+    }
+
+    public static ToolTipGroup init(Activity activity) {
+        return new ToolTipGroup(activity);
+    }
+
+    /**
+     * Add a hint, before the group is shown
+     *
+     * @param targetView view the ToolTip points at
+     * @param toolTip    attributes of the ToolTip, such as its title, description and gravity
+     * @return return ToolTipGroup instance for chaining purpose
+     */
+    public ToolTipGroup add(View targetView, ToolTip toolTip) {
+        if (mContainer != null || mPendingShow != null)
+            throw new IllegalStateException("Hints must be added before the ToolTipGroup is shown");
+        mHints.add(new Hint(targetView, toolTip));
+        return this;
+    }
+
+    /**
+     * Show every hint, once all the targets are laid out. Nothing is shown when no hint was added.
+     *
+     * @return return ToolTipGroup instance for chaining purpose
+     */
+    public ToolTipGroup show() {
+        if (mContainer != null || mPendingShow != null || mHints.isEmpty())
+            return this;
+        if (allTargetsAttached()) {
+            showHints();
+        } else {
+            final View decorView = mActivity.getWindow().getDecorView();
+            mPendingShow = new ViewTreeObserver.OnGlobalLayoutListener() {
+                @Override
+                public void onGlobalLayout() {
+                    if (!allTargetsAttached())
+                        return;
+                    removePendingShow();
+                    showHints();
+                }
+            };
+            decorView.getViewTreeObserver().addOnGlobalLayoutListener(mPendingShow);
+            decorView.postDelayed(mAttachTimeout, ATTACH_TIMEOUT_MS);
+        }
+        return this;
+    }
+
+    /**
+     * Remove the hint of a target, the others stay where they are
+     *
+     * @param targetView view given to {@link #add(View, ToolTip)}
+     */
+    public void remove(View targetView) {
+        for (int i = mHints.size() - 1; i >= 0; i--) {
+            Hint hint = mHints.get(i);
+            if (hint.mTarget == targetView) {
+                mHints.remove(i);
+                removeToolTipView(hint);
+            }
+        }
+    }
+
+    /**
+     * Remove every hint from the activity
+     */
+    public void cleanUp() {
+        removePendingShow();
+        for (int i = 0; i < mHints.size(); i++) {
+            removeToolTipView(mHints.get(i));
+        }
+        mHints.clear();
+        if (mContainer != null) {
+            ViewGroup parent = (ViewGroup) mContainer.getParent();
+            if (parent != null) {
+                parent.removeView(mContainer);
+            }
+            mContainer = null;
+        }
+    }
+
+    private boolean allTargetsAttached() {
+        for (int i = 0; i < mHints.size(); i++) {
+            if (!ViewCompat.isAttachedToWindow(mHints.get(i).mTarget))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Forget the hints whose target never got attached, they cannot be placed
+     */
+    private void dropDetachedHints() {
+        for (int i = mHints.size() - 1; i >= 0; i--) {
+            if (!ViewCompat.isAttachedToWindow(mHints.get(i).mTarget)) {
+                Log.w("tourguide", "ToolTipGroup: target not attached after " + ATTACH_TIMEOUT_MS + " ms, its hint is not shown");
+                mHints.remove(i);
+            }
+        }
+    }
+
+    private void removePendingShow() {
+        if (mPendingShow == null)
+            return;
+        View decorView = mActivity.getWindow().getDecorView();
+        decorView.removeCallbacks(mAttachTimeout);
+        ViewTreeObserver observer = decorView.getViewTreeObserver();
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            //noinspection deprecation
+            observer.removeGlobalOnLayoutListener(mPendingShow);
+        } else {
+            observer.removeOnGlobalLayoutListener(mPendingShow);
+        }
+        mPendingShow = null;
+    }
+
+    private void showHints() {
+        ViewGroup decorView = (ViewGroup) mActivity.getWindow().getDecorView();
+        TourGuide.resolveToolTipBounds(decorView, mBounds);
+        boolean staticRendering = ReducedMotion.isEnabled(mActivity);
+
+        /* measure every ToolTip and find where the targets are */
+        for (int i = 0; i < mHints.size(); i++) {
+            Hint hint = mHints.get(i);
+            setupToolTipView(hint);
+            hint.mTarget.getLocationOnScreen(mPos);
+            hint.mTargetBounds.set(mPos[0], mPos[1], mPos[0] + hint.mTarget.getWidth(), mPos[1] + hint.mTarget.getHeight());
+        }
+
+        /* place them all, while nothing is attached yet */
+        mContainer = new FrameLayout(mActivity);
+        for (int i = 0; i < mHints.size(); i++) {
+            Hint hint = mHints.get(i);
+            placeToolTip(i);
+            FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams(hint.mLayoutWidth, FrameLayout.LayoutParams.WRAP_CONTENT);
+            layoutParams.setMargins(hint.mToolTipBounds.left, hint.mToolTipBounds.top, 0, 0);
+            mContainer.addView(hint.mView, layoutParams);
+        }
+
+        /* one layout pass for all of them */
+        decorView.addView(mContainer, new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+
+        for (int i = 0; i < mHints.size(); i++) {
+            Hint hint = mHints.get(i);
+            hint.mTracker.track(hint.mTarget, null);
+            hint.mTracker.setToolTip(hint.mView, hint.mTargetBounds.left, hint.mTargetBounds.top);
+            if (!staticRendering) {
+                performEnterTransition(hint);
+            }
+        }
+    }
+
+    private void setupToolTipView(final Hint hint) {
+        ToolTip toolTip = hint.mToolTip;
+        if (toolTip.getCustomView() == null) {
+            ToolTipView toolTipView = ToolTipViewPool.get(mActivity).acquire();
+            toolTipView.bind(toolTip);
+            hint.mView = toolTipView;
+        } else {
+            hint.mView = toolTip.getCustomView();
+            if (toolTip.mShadow) {
+                hint.mView.setBackgroundDrawable(mActivity.getResources().getDrawable(R.drawable.bg_trans_shadow));
+            }
+        }
+        hint.mView.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                if (hint.mToolTip.mOnClickListener != null)
+                    hint.mToolTip.mOnClickListener.onClick(v);
+            }
+        });
+
+        int widthSpec = View.MeasureSpec.makeMeasureSpec(mBounds.width(), View.MeasureSpec.AT_MOST);
+        int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        hint.mView.measure(widthSpec, heightSpec);
+        hint.mWidth = toolTip.mWidth != -1 ? toolTip.mWidth : hint.mView.getMeasuredWidth();
+        hint.mHeight = hint.mView.getMeasuredHeight();
+        hint.mLayoutWidth = toolTip.mWidth != -1 ? toolTip.mWidth : FrameLayout.LayoutParams.WRAP_CONTENT;
+        if (hint.mWidth > mBounds.width()) {
+            hint.mWidth = mBounds.width();
+            hint.mLayoutWidth = mBounds.width();
+        }
+    }
+
+    /**
+     * Place the ToolTip of a hint, away from the ToolTips placed before it and from the targets of the other hints
+     */
+    private void placeToolTip(int index) {
+        Hint hint = mHints.get(index);
+        ToolTipPlacementSolver solver = mPlacementSolver;
+        float density = mActivity.getResources().getDisplayMetrics().density;
+        solver.setBounds(mBounds.left, mBounds.top, mBounds.right, mBounds.bottom);
+        solver.setTarget(hint.mTargetBounds.left, hint.mTargetBounds.top, hint.mTargetBounds.right, hint.mTargetBounds.bottom);
+        solver.setOffset((int) (hint.mToolTip.mTooltipAndTargetViewOffset * density));
+
+        solver.clearObstacles();
+        boolean full = false;
+        for (int i = 0; i < index && !full; i++) {
+            full = !addObstacle(hint, mHints.get(i).mToolTipBounds);
+        }
+        for (int i = 0; i < mHints.size() && !full; i++) {
+            if (i != index) {
+                full = !addObstacle(hint, mHints.get(i).mTargetBounds);
+            }
+        }
+        if (full) {
+            Log.w("tourguide", "ToolTipGroup: more than " + ToolTipPlacementSolver.MAX_OBSTACLES
+                + " hints around one target, its ToolTip may cover some of them");
+        }
+
+        solver.solve(hint.mToolTip.mGravity, hint.mWidth, hint.mHeight);
+        hint.mToolTipBounds.set(solver.mX, solver.mY, solver.mX + hint.mWidth, solver.mY + hint.mHeight);
+        // keep the width when the ToolTip was shifted against the right edge
+        if (hint.mToolTipBounds.right >= mBounds.right) {
+            hint.mLayoutWidth = hint.mWidth;
+        }
+    }
+
+    /**
+     * Avoid an area when placing the ToolTip of a hint, areas out of its reach are skipped so they do not take the solver's room
+     *
+     * @return false when the solver cannot take more obstacles
+     */
+    private boolean addObstacle(Hint hint, Rect area) {
+        if (!mPlacementSolver.canReach(area.left, area.top, area.right, area.bottom, hint.mWidth, hint.mHeight))
+            return true;
+        return mPlacementSolver.addObstacle(area.left, area.top, area.right, area.bottom);
+    }
+
+    private static void performEnterTransition(Hint hint) {
+        if (hint.mToolTip.mEnterAnimation != null) {
+            hint.mView.startAnimation(hint.mToolTip.mEnterAnimation);
+        } else if (hint.mToolTip.mFadeInDuration > 0) {
+            hint.mTransition = ViewTransitions.fade(hint.mView, 0f, 1f, hint.mToolTip.mFadeInDuration, hint.mToolTip.mFadeInInterpolator, null);
+        }
+    }
+
+    /**
+     * Remove the ToolTip of a hint right away, and give it back to the pool when it is not a custom view
+     */
+    private void removeToolTipView(Hint hint) {
+        hint.mTracker.stop();
+        if (hint.mTransition != null) {
+            hint.mTransition.cancel();
+            hint.mTransition = null;
+        }
+        View view = hint.mView;
+        if (view == null)
+            return;
+        hint.mView = null;
+        view.clearAnimation();
+        ViewGroup parent = (ViewGroup) view.getParent();
+        if (parent != null) {
+            parent.removeView(view);
+        }
+        if (view instanceof ToolTipView) {
+            ToolTipViewPool.get(mActivity).release((ToolTipView) view);
+        }
+    }
+
+    private static final class Hint {
+        final View mTarget;
+        final ToolTip mToolTip;
+        final TargetTracker mTracker = new TargetTracker();
+        final Rect mTargetBounds = new Rect();
+        final Rect mToolTipBounds = new Rect();
+        View mView;
+        int mWidth;
+        int mHeight;
+        int mLayoutWidth;
+        Animator mTransition;
+
+        Hint(View target, ToolTip toolTip) {
+            mTarget = target;
+            mToolTip = toolTip;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package tourguide.tourguide;
+
+import android.text.Spanned;
+import android.text.SpannedString;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link ToolTipPlacementCache} remembers where the default ToolTip of a {@link TourGuide} ended up: its measured size and its clamped position
+ * for a given content, set of constraints and target bounds. Replaying a {@link ChainTourGuide}, or showing the same step again, places the
+ * ToolTip without measuring it first.
+ * <p>
+ * Only the most recently used placements are kept. ToolTips with a custom view are never cached, their content is not known to the guide.
+ */
+public final class ToolTipPlacementCache {
+    private static final int DEFAULT_MAX_SIZE = 32;
+
+    private static ToolTipPlacementCache sInstance;
+
+    /* access ordered, the eldest entry is the least recently used one */
+    private final LinkedHashMap<Key, Placement> mPlacements = new LinkedHashMap<Key, Placement>(DEFAULT_MAX_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Placement> eldest) {
+            if (size() > mMaxSize) {
+                mEvictionCount++;
+                return true;
+            }
+            return false;
+        }
+    };
+    private int mMaxSize;
+
+    private int mHitCount;
+    private int mMissCount;
+    private int mEvictionCount;
+
+    ToolTipPlacementCache(int maxSize) {
+        mMaxSize = maxSize;
+    }
+
+    public static synchronized ToolTipPlacementCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new ToolTipPlacementCache(DEFAULT_MAX_SIZE);
+        }
+        return sInstance;
+    }
+
+    /**
+     * @param key what the ToolTip is placed for, it is only read
+     * @return the placement computed before for an equal key, or null when it has to be computed
+     */
+    synchronized Placement get(Key key) {
+        Placement placement = mPlacements.get(key);
+        if (placement != null) {
+            mHitCount++;
+        } else {
+            mMissCount++;
+        }
+        return placement;
+    }
+
+    /**
+     * @param key       what the ToolTip was placed for, a copy is kept so the caller can reuse it
+     * @param placement computed placement
+     */
+    synchronized void put(Key key, Placement placement) {
+        if (mMaxSize <= 0)
+            return;
+        mPlacements.put(key.copy(), placement);
+    }
+
+    /**
+     * Set the maximum amount of placements kept, the least recently used ones are evicted when it is exceeded
+     *
+     * @param maxSize number of placements, 0 disables caching
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        mMaxSize = maxSize;
+        trimToSize(maxSize);
+    }
+
+    /**
+     * Drop every placement, for example when the app receives onTrimMemory()
+     */
+    public synchronized void clear() {
+        trimToSize(0);
+    }
+
+    private void trimToSize(int maxSize) {
+        while (mPlacements.size() > maxSize) {
+            Key eldest = mPlacements.keySet().iterator().next();
+            mPlacements.remove(eldest);
+            mEvictionCount++;
+        }
+    }
+
+    public synchronized int getMaxSize() {
+        return mMaxSize;
+    }
+
+    public synchronized int getSize() {
+        return mPlacements.size();
+    }
+
+    public synchronized int getHitCount() {
+        return mHitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return mMissCount;
+    }
+
+    public synchronized int getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    /**
+     * Everything the size and the position of a default ToolTip depend on. A guide fills the same instance each time it places its ToolTip,
+     * the cache copies it when it keeps it. The copy holds immutable snapshots of the texts: a text changed after its ToolTip was shown
+     * must not change the hash of a key that is already in the cache.
+     */
+    static final class Key {
+        /* content */
+        CharSequence mTitle;
+        CharSequence mDescription;
+        float mTitleTextSize;
+        float mDescriptionTextSize;
+        boolean mShadow;
+        int mWidth;
+
+        /* placement */
+        int mGravity;
+        int mOffset;
+        float mDensity;
+
+        /* constraints: screen width the ToolTip is measured against, width it is clamped to and height of the screen */
+        int mMaxWidth;
+        int mParentWidth;
+        int mScreenHeight;
+        /* area a targeted ToolTip stays in, without the system bars */
+        int mBoundsLeft;
+        int mBoundsTop;
+        int mBoundsRight;
+        int mBoundsBottom;
+
+        /* target bounds on screen, the target is the whole window when it has no size */
+        int mTargetX;
+        int mTargetY;
+        int mTargetWidth;
+        int mTargetHeight;
+        /* hole the overlay cuts around the target, the target bounds when there is none */
+        int mHoleLeft;
+        int mHoleTop;
+        int mHoleRight;
+        int mHoleBottom;
+        boolean mHoleCircle;
+
+        Key copy() {
+            Key key = new Key();
+            key.mTitle = snapshot(mTitle);
+            key.mDescription = snapshot(mDescription);
+            key.mTitleTextSize = mTitleTextSize;
+            key.mDescriptionTextSize = mDescriptionTextSize;
+            key.mShadow = mShadow;
+            key.mWidth = mWidth;
+            key.mGravity = mGravity;
+            key.mOffset = mOffset;
+            key.mDensity = mDensity;
+            key.mMaxWidth = mMaxWidth;
+            key.mParentWidth = mParentWidth;
+            key.mScreenHeight = mScreenHeight;
+            key.mBoundsLeft = mBoundsLeft;
+            key.mBoundsTop = mBoundsTop;
+            key.mBoundsRight = mBoundsRight;
+            key.mBoundsBottom = mBoundsBottom;
+            key.mTargetX = mTargetX;
+            key.mTargetY = mTargetY;
+            key.mTargetWidth = mTargetWidth;
+            key.mTargetHeight = mTargetHeight;
+            key.mHoleLeft = mHoleLeft;
+            key.mHoleTop = mHoleTop;
+            key.mHoleRight = mHoleRight;
+            key.mHoleBottom = mHoleBottom;
+            key.mHoleCircle = mHoleCircle;
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return mTitleTextSize == other.mTitleTextSize && mDescriptionTextSize == other.mDescriptionTextSize
+                && mShadow == other.mShadow && mWidth == other.mWidth
+                && mGravity == other.mGravity && mOffset == other.mOffset && mDensity == other.mDensity
+                && mMaxWidth == other.mMaxWidth && mParentWidth == other.mParentWidth && mScreenHeight == other.mScreenHeight
+                && mBoundsLeft == other.mBoundsLeft && mBoundsTop == other.mBoundsTop
+                && mBoundsRight == other.mBoundsRight && mBoundsBottom == other.mBoundsBottom
+                && mTargetX == other.mTargetX && mTargetY == other.mTargetY
+                && mTargetWidth == other.mTargetWidth && mTargetHeight == other.mTargetHeight
+                && mHoleLeft == other.mHoleLeft && mHoleTop == other.mHoleTop
+                && mHoleRight == other.mHoleRight && mHoleBottom == other.mHoleBottom && mHoleCircle == other.mHoleCircle
+                // the spans count as well, as far as the CharSequence compares them
+                && textEquals(mTitle, other.mTitle) && textEquals(mDescription, other.mDescription);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = textHashCode(mTitle);
+            result = 31 * result + textHashCode(mDescription);
+            result = 31 * result + Float.floatToIntBits(mTitleTextSize);
+            result = 31 * result + Float.floatToIntBits(mDescriptionTextSize);
+            result = 31 * result + (mShadow ? 1 : 0);
+            result = 31 * result + mWidth;
+            result = 31 * result + mGravity;
+            result = 31 * result + mOffset;
+            result = 31 * result + Float.floatToIntBits(mDensity);
+            result = 31 * result + mMaxWidth;
+            result = 31 * result + mParentWidth;
+            result = 31 * result + mScreenHeight;
+            result = 31 * result + mBoundsLeft;
+            result = 31 * result + mBoundsTop;
+            result = 31 * result + mBoundsRight;
+            result = 31 * result + mBoundsBottom;
+            result = 31 * result + mTargetX;
+            result = 31 * result + mTargetY;
+            result = 31 * result + mTargetWidth;
+            result = 31 * result + mTargetHeight;
+            result = 31 * result + mHoleLeft;
+            result = 31 * result + mHoleTop;
+            result = 31 * result + mHoleRight;
+            result = 31 * result + mHoleBottom;
+            result = 31 * result + (mHoleCircle ? 1 : 0);
+            return result;
+        }
+
+        /**
+         * @return the text itself when it cannot change, String and SpannedString, otherwise an immutable copy of its current content
+         */
+        private static CharSequence snapshot(CharSequence text) {
+            if (text == null || text instanceof String || text instanceof SpannedString)
+                return text;
+            // SpannedString copies the spans as they are now, the span objects themselves are compared by equals()
+            return text instanceof Spanned ? new SpannedString(text) : text.toString();
+        }
+
+        private static boolean textEquals(CharSequence a, CharSequence b) {
+            if (a == b)
+                return true;
+            if (a == null || b == null)
+                return false;
+            if (a instanceof Spanned || b instanceof Spanned)
+                return a.equals(b);
+            // a snapshot is a String, the text of the key being looked up may still be a StringBuilder
+            int length = a.length();
+            if (length != b.length())
+                return false;
+            for (int i = 0; i < length; i++) {
+                if (a.charAt(i) != b.charAt(i))
+                    return false;
+            }
+            return true;
+        }
+
+        private static int textHashCode(CharSequence text) {
+            return text == null ? 0 : text.toString().hashCode();
+        }
+    }
+
+    /**
+     * Measured size of a ToolTip and where it goes, after clamping it to its parent
+     */
+    static final class Placement {
+        final int mMeasuredWidth;
+        final int mMeasuredHeight;
+        /* width of the ToolTip's layout params, WRAP_CONTENT unless the ToolTip had to be narrowed or has a fixed width */
+        final int mLayoutWidth;
+        final int mX;
+        final int mY;
+
+        Placement(int measuredWidth, int measuredHeight, int layoutWidth, int x, int y) {
+            mMeasuredWidth = measuredWidth;
+            mMeasuredHeight = measuredHeight;
+            mLayoutWidth = layoutWidth;
+            mX = x;
+            mY = y;
+        }
+    }
+}
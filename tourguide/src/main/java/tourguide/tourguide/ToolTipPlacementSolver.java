@@ -0,0 +1,295 @@
+package tourguide.tourguide;
+
+import android.view.Gravity;
+
+/**
+ * {@link ToolTipPlacementSolver} picks where the ToolTip of a targeted view goes. The gravity asked for by the {@link ToolTip} is tried
+ * first, with the same geometry the guide always used: above or below the target, and centered, before or after it. When that does not
+ * fit, the other combinations of {@link Gravity#TOP}/{@link Gravity#BOTTOM} and {@link Gravity#START}/center/{@link Gravity#END} are
+ * tried, and the one covering the least of what matters wins:
+ * <ul>
+ * <li>the part of the ToolTip outside the bounds, the screen without the system bars, when it is too big for them</li>
+ * <li>the part of the hole it covers, with the shape the overlay cuts, apart from the overlap the ToolTip offset asks for</li>
+ * <li>the part of the other visible ToolTips it covers</li>
+ * </ul>
+ * Every candidate is shifted into the bounds first, horizontally like the guide always did, and vertically as well, so a ToolTip that
+ * does not fit on one side of the target ends up covering it and loses to one that fits elsewhere.
+ * <p>
+ * It is plain Java working on pixels. Solving allocates nothing and takes a bounded time: at most {@link #MAX_OBSTACLES} ToolTips are
+ * avoided and seven candidates are evaluated. Callers with more obstacles only add the ones {@link #canReach(int, int, int, int, int, int)
+ * within reach} of the ToolTip, the others cannot be covered wherever it goes.
+ */
+final class ToolTipPlacementSolver {
+    /* ToolTips and targets around the target, the ones further away are left out with canReach() */
+    static final int MAX_OBSTACLES = 32;
+
+    /* tried in this order after the requested gravity, on a tie the first one wins */
+    private static final int[] CANDIDATES = {
+        Gravity.BOTTOM,
+        Gravity.TOP,
+        Gravity.BOTTOM | Gravity.END,
+        Gravity.BOTTOM | Gravity.START,
+        Gravity.TOP | Gravity.END,
+        Gravity.TOP | Gravity.START,
+    };
+
+    /* being out of the screen hides the text, it costs more than covering the target or another ToolTip */
+    private static final int OUT_OF_BOUNDS_WEIGHT = 3;
+    private static final int HOLE_WEIGHT = 2;
+    private static final int OBSTACLE_WEIGHT = 2;
+    /* precision of the area of a circular hole a candidate covers, enough to compare candidates */
+    private static final int CIRCLE_STRIPS = 16;
+
+    private int mBoundsLeft;
+    private int mBoundsTop;
+    private int mBoundsRight;
+    private int mBoundsBottom;
+
+    private int mTargetLeft;
+    private int mTargetTop;
+    private int mTargetRight;
+    private int mTargetBottom;
+
+    /* the hole cut around the target, a rectangle or the bounds of a circle */
+    private int mHoleLeft;
+    private int mHoleTop;
+    private int mHoleRight;
+    private int mHoleBottom;
+    private boolean mHoleCircle;
+
+    private int mOffset;
+
+    /* left, top, right, bottom of each obstacle */
+    private final int[] mObstacles = new int[MAX_OBSTACLES * 4];
+    private int mObstacleCount;
+
+    /* position of the candidate being evaluated */
+    private int mCandidateX;
+    private int mCandidateY;
+
+    /* result of the last solve() */
+    int mX;
+    int mY;
+    int mGravity;
+
+    /**
+     * @param left   left of the area the ToolTip should stay in
+     * @param top    top of that area, below the status bar
+     * @param right  right of that area
+     * @param bottom bottom of that area, above the navigation bar
+     */
+    void setBounds(int left, int top, int right, int bottom) {
+        mBoundsLeft = left;
+        mBoundsTop = top;
+        mBoundsRight = right;
+        mBoundsBottom = bottom;
+    }
+
+    /**
+     * Set the targeted view, the hole is the view itself until {@link #setHole(int, int, int, int, boolean)} is called
+     *
+     * @param left   left of the targeted view
+     * @param top    top of the targeted view
+     * @param right  right of the targeted view
+     * @param bottom bottom of the targeted view
+     */
+    void setTarget(int left, int top, int right, int bottom) {
+        mTargetLeft = left;
+        mTargetTop = top;
+        mTargetRight = right;
+        mTargetBottom = bottom;
+        setHole(left, top, right, bottom, false);
+    }
+
+    /**
+     * Set the hole the overlay cuts around the target, which is usually padded and may be a circle larger than the target
+     *
+     * @param left   left of the hole, or of the bounds of the circle
+     * @param top    top of the hole, or of the bounds of the circle
+     * @param right  right of the hole, or of the bounds of the circle
+     * @param bottom bottom of the hole, or of the bounds of the circle
+     * @param circle true when the hole is the circle inscribed in the bounds
+     */
+    void setHole(int left, int top, int right, int bottom, boolean circle) {
+        mHoleLeft = left;
+        mHoleTop = top;
+        mHoleRight = right;
+        mHoleBottom = bottom;
+        mHoleCircle = circle;
+    }
+
+    /**
+     * @param offset how much the ToolTip overlaps the target, or is away from it, in pixels
+     */
+    void setOffset(int offset) {
+        mOffset = offset;
+    }
+
+    void clearObstacles() {
+        mObstacleCount = 0;
+    }
+
+    /**
+     * Avoid covering another ToolTip
+     *
+     * @return false when there are already {@link #MAX_OBSTACLES} obstacles, this one is ignored
+     */
+    boolean addObstacle(int left, int top, int right, int bottom) {
+        if (mObstacleCount >= MAX_OBSTACLES)
+            return false;
+        int i = mObstacleCount * 4;
+        mObstacles[i] = left;
+        mObstacles[i + 1] = top;
+        mObstacles[i + 2] = right;
+        mObstacles[i + 3] = bottom;
+        mObstacleCount++;
+        return true;
+    }
+
+    /**
+     * Tell whether a ToolTip placed around the current target, wherever it goes, may cover an area.
+     * Only areas within reach need to be added as obstacles.
+     *
+     * @param width  measured width of the ToolTip
+     * @param height measured height of the ToolTip
+     * @return false when no candidate position can cover the area
+     */
+    boolean canReach(int left, int top, int right, int bottom, int width, int height) {
+        int offset = Math.abs(mOffset);
+        // every candidate is next to the target, even once shifted into the bounds, unless the target itself is out of them
+        int reachLeft = Math.min(mTargetLeft, mBoundsRight) - width - offset;
+        int reachTop = Math.min(mTargetTop, mBoundsBottom) - height - offset;
+        int reachRight = Math.max(mTargetRight, mBoundsLeft) + width + offset;
+        int reachBottom = Math.max(mTargetBottom, mBoundsTop) + height + offset;
+        return intersection(left, top, right, bottom, reachLeft, reachTop, reachRight, reachBottom) > 0;
+    }
+
+    /**
+     * Find the best position for a ToolTip, the result is in {@link #mX}, {@link #mY} and {@link #mGravity}
+     *
+     * @param gravity gravity requested by the ToolTip
+     * @param width   measured width of the ToolTip
+     * @param height  measured height of the ToolTip
+     */
+    void solve(int gravity, int width, int height) {
+        long bestCost = evaluate(gravity, width, height);
+        int bestGravity = gravity;
+        int bestX = mCandidateX;
+        int bestY = mCandidateY;
+
+        for (int i = 0; i < CANDIDATES.length && bestCost > 0; i++) {
+            int candidate = CANDIDATES[i];
+            if (candidate == gravity)
+                continue;
+            long cost = evaluate(candidate, width, height);
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestGravity = candidate;
+                bestX = mCandidateX;
+                bestY = mCandidateY;
+            }
+        }
+
+        mX = bestX;
+        mY = bestY;
+        mGravity = bestGravity;
+    }
+
+    /**
+     * Place a candidate in {@link #mCandidateX} and {@link #mCandidateY}
+     *
+     * @return how much it covers, weighted, 0 when it fits
+     */
+    private long evaluate(int gravity, int width, int height) {
+        place(gravity, width, height);
+        int left = mCandidateX;
+        int top = mCandidateY;
+        int right = left + width;
+        int bottom = top + height;
+
+        long outOfBounds = (long) width * height - intersection(left, top, right, bottom, mBoundsLeft, mBoundsTop, mBoundsRight, mBoundsBottom);
+        // the offset lets corner ToolTips overlap the target on purpose
+        long hole;
+        if (mHoleCircle) {
+            hole = circleIntersection(left, top, right, bottom, (mHoleLeft + mHoleRight) / 2f, (mHoleTop + mHoleBottom) / 2f,
+                (mHoleRight - mHoleLeft) / 2f - mOffset);
+        } else {
+            hole = intersection(left, top, right, bottom, mHoleLeft + mOffset, mHoleTop + mOffset, mHoleRight - mOffset, mHoleBottom - mOffset);
+        }
+        long obstacles = 0;
+        for (int i = 0; i < mObstacleCount * 4; i += 4) {
+            obstacles += intersection(left, top, right, bottom, mObstacles[i], mObstacles[i + 1], mObstacles[i + 2], mObstacles[i + 3]);
+        }
+        return outOfBounds * OUT_OF_BOUNDS_WEIGHT + hole * HOLE_WEIGHT + obstacles * OBSTACLE_WEIGHT;
+    }
+
+    /**
+     * Position of a ToolTip for a gravity, the way the guide has always placed it around its target, shifted into the bounds
+     */
+    private void place(int gravity, int width, int height) {
+        int targetWidth = mTargetRight - mTargetLeft;
+        // LEFT and RIGHT are part of START and END, a ToolTip on a side overlaps the target corner by the offset
+        boolean side = (gravity & Gravity.LEFT) == Gravity.LEFT || (gravity & Gravity.RIGHT) == Gravity.RIGHT;
+
+        int x;
+        if ((gravity & Gravity.START) == Gravity.START) {
+            x = mTargetLeft - width + mOffset;
+        } else if ((gravity & Gravity.END) == Gravity.END) {
+            x = mTargetRight - mOffset;
+        } else {
+            x = mTargetLeft + targetWidth / 2 - width / 2;
+        }
+
+        int y;
+        if ((gravity & Gravity.TOP) == Gravity.TOP) {
+            y = side ? mTargetTop - height + mOffset : mTargetTop - height - mOffset;
+        } else {
+            y = side ? mTargetBottom - mOffset : mTargetBottom + mOffset;
+        }
+
+        if (x + width > mBoundsRight) {
+            x = mBoundsRight - width;
+        }
+        if (x < mBoundsLeft) {
+            x = mBoundsLeft;
+        }
+        if (y + height > mBoundsBottom) {
+            y = mBoundsBottom - height;
+        }
+        if (y < mBoundsTop) {
+            y = mBoundsTop;
+        }
+
+        mCandidateX = x;
+        mCandidateY = y;
+    }
+
+    /**
+     * Area of a rectangle covered by a circle, summed over vertical strips of the part of the rectangle within the circle's bounds
+     */
+    private static long circleIntersection(int left, int top, int right, int bottom, float centerX, float centerY, float radius) {
+        if (radius <= 0)
+            return 0;
+        double from = Math.max(left, centerX - radius);
+        double to = Math.min(right, centerX + radius);
+        if (to <= from)
+            return 0;
+        double stripWidth = (to - from) / CIRCLE_STRIPS;
+        double area = 0;
+        for (int i = 0; i < CIRCLE_STRIPS; i++) {
+            double dx = from + (i + 0.5) * stripWidth - centerX;
+            double halfHeight = Math.sqrt(Math.max(0, (double) radius * radius - dx * dx));
+            double height = Math.min(bottom, centerY + halfHeight) - Math.max(top, centerY - halfHeight);
+            if (height > 0) {
+                area += height * stripWidth;
+            }
+        }
+        return Math.round(area);
+    }
+
+    private static long intersection(int left, int top, int right, int bottom, int otherLeft, int otherTop, int otherRight, int otherBottom) {
+        long width = Math.min(right, otherRight) - Math.max(left, otherLeft);
+        long height = Math.min(bottom, otherBottom) - Math.max(top, otherTop);
+        return width > 0 && height > 0 ? width * height : 0;
+    }
+}
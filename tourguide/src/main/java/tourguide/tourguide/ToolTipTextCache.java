@@ -0,0 +1,155 @@
+package tourguide.tourguide;
+
+import android.os.Process;
+import android.text.Spanned;
+import android.text.SpannedString;
+import android.util.Log;
+
+import androidx.core.text.PrecomputedTextCompat;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * {@link ToolTipTextCache} measures the title and description of ToolTips on a background thread, so showing a ToolTip on the main thread
+ * only attaches text that is already measured. PrecomputedTextCompat does the work: PrecomputedText from Pie on, a StaticLayout that
+ * warms the text measurement cache before that.
+ * <p>
+ * Results are kept by text and text metrics (paint, break strategy, hyphenation and text direction), the few most recently used ones,
+ * so replaying a tour or a step measures nothing again. Line breaking against the width of the ToolTip is left to the TextView,
+ * it only walks the measured text.
+ * <p>
+ * A text that can change, such as a SpannableStringBuilder, is copied as it is when asked for: the copy is measured, and only a text
+ * equal to that copy gets the result. Changing the text afterwards leads to a miss, never to stale text.
+ */
+final class ToolTipTextCache {
+    private static final int MAX_SIZE = 32;
+
+    private static ToolTipTextCache sInstance;
+
+    /* access ordered, the eldest entry is the least recently used one */
+    private final LinkedHashMap<Key, PrecomputedTextCompat> mTexts = new LinkedHashMap<Key, PrecomputedTextCompat>(MAX_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, PrecomputedTextCompat> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+    /* texts handed to the executor and not measured yet, so the same text is not measured twice */
+    private final HashSet<Key> mPending = new HashSet<Key>();
+    private final Executor mExecutor;
+
+    private ToolTipTextCache(Executor executor) {
+        mExecutor = executor;
+    }
+
+    static synchronized ToolTipTextCache getInstance() {
+        if (sInstance == null) {
+            ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            runnable.run();
+                        }
+                    }, "tourguide-text");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            sInstance = new ToolTipTextCache(executor);
+        }
+        return sInstance;
+    }
+
+    /**
+     * Measure a text in the background, nothing is done when it is already measured or being measured
+     *
+     * @param text   text to measure, nothing is done for an empty text
+     * @param params text metrics of the TextView the text will be shown in
+     */
+    void precompute(CharSequence text, final PrecomputedTextCompat.Params params) {
+        if (text == null || text.length() == 0 || text instanceof PrecomputedTextCompat)
+            return;
+        // the copy is measured, the caller may change its text on the main thread meanwhile
+        final Key key = new Key(snapshot(text), params);
+        synchronized (this) {
+            if (mTexts.containsKey(key) || !mPending.add(key))
+                return;
+        }
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                PrecomputedTextCompat precomputed = null;
+                try {
+                    precomputed = PrecomputedTextCompat.create(key.mText, params);
+                } catch (RuntimeException e) {
+                    // e.g. a span the text measurement cannot handle, the TextView will lay the text out itself
+                    Log.w("tourguide", "Could not measure ToolTip text in the background", e);
+                }
+                synchronized (ToolTipTextCache.this) {
+                    mPending.remove(key);
+                    if (precomputed != null) {
+                        mTexts.put(key, precomputed);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the measured text, or null when it is not measured yet, the caller then sets the plain text instead of waiting
+     */
+    synchronized PrecomputedTextCompat get(CharSequence text, PrecomputedTextCompat.Params params) {
+        if (text == null || text.length() == 0)
+            return null;
+        return mTexts.get(new Key(snapshot(text), params));
+    }
+
+    /**
+     * @return the text itself when it cannot change, String and SpannedString, otherwise an immutable copy of its current content
+     */
+    private static CharSequence snapshot(CharSequence text) {
+        if (text instanceof String || text instanceof SpannedString)
+            return text;
+        // SpannedString copies the spans as they are now, the span objects themselves are compared by equals()
+        return text instanceof Spanned ? new SpannedString(text) : text.toString();
+    }
+
+    private static final class Key {
+        final CharSequence mText;
+        final PrecomputedTextCompat.Params mParams;
+        private final int mHashCode;
+
+        /**
+         * @param text text that cannot change anymore, see {@link #snapshot(CharSequence)}
+         */
+        Key(CharSequence text, PrecomputedTextCompat.Params params) {
+            mText = text;
+            mParams = params;
+            mHashCode = 31 * text.toString().hashCode() + params.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            // the spans count as well, as far as the CharSequence compares them
+            return mHashCode == other.mHashCode && mText.equals(other.mText) && mParams.equals(other.mParams);
+        }
+
+        @Override
+        public int hashCode() {
+            return mHashCode;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package tourguide.tourguide;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.XmlResourceParser;
+import android.graphics.drawable.Drawable;
+import android.util.Log;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.core.content.ContextCompat;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+
+/**
+ * {@link ToolTipView} is the default ToolTip, built in code with the structure and ids of {@code R.layout.tooltip}: a container
+ * ({@code R.id.toolTip_container}) holding a title ({@code R.id.title}) and a description ({@code R.id.description}).
+ * When the app overrides {@code R.layout.tooltip}, that layout is inflated instead, and the views with these ids are used.
+ * It keeps its children and its shadow, so it can be bound to another {@link ToolTip} by {@link ToolTipViewPool} instead of being
+ * built again. Texts measured ahead by {@link ToolTipTextCache} are attached as they are.
+ */
+class ToolTipView extends LinearLayout {
+    private static final int PADDING_DP = 10;
+    private static final int TITLE_TEXT_SIZE_SP = 20;
+
+    private final View mContainer;
+    private final TextView mTitle;
+    private final TextView mDescription;
+    private final boolean mInflated;
+    private Drawable mShadow;
+
+    ToolTipView(Context context) {
+        super(context);
+        setOrientation(VERTICAL);
+
+        mInflated = isLayoutOverridden(context.getResources());
+        if (mInflated) {
+            addView(LayoutInflater.from(context).inflate(R.layout.tooltip, this, false));
+            mContainer = findViewById(R.id.toolTip_container);
+            mTitle = (TextView) findViewById(R.id.title);
+            mDescription = (TextView) findViewById(R.id.description);
+            return;
+        }
+
+        int padding = Math.round(PADDING_DP * context.getResources().getDisplayMetrics().density);
+        LinearLayout container = new LinearLayout(context);
+        container.setId(R.id.toolTip_container);
+        container.setOrientation(VERTICAL);
+        container.setGravity(Gravity.CENTER);
+        container.setPadding(padding, padding, padding, padding);
+        mContainer = container;
+
+        mTitle = new TextView(context);
+        mTitle.setId(R.id.title);
+        mTitle.setTextSize(TypedValue.COMPLEX_UNIT_SP, TITLE_TEXT_SIZE_SP);
+        container.addView(mTitle, new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT));
+
+        mDescription = new TextView(context);
+        mDescription.setId(R.id.description);
+        container.addView(mDescription, new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT));
+
+        LayoutParams containerParams = new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT);
+        containerParams.gravity = Gravity.BOTTOM;
+        addView(mContainer, containerParams);
+    }
+
+    /**
+     * Tell whether the app replaced {@code R.layout.tooltip} with its own layout. The library's layout is kept a second time as
+     * {@code R.layout.tourguide_tooltip_default}, which apps do not override, so the two only differ when tooltip.xml was overridden,
+     * including for a single configuration. Only the compiled XML is read, nothing is inflated.
+     */
+    static boolean isLayoutOverridden(Resources resources) {
+        XmlResourceParser layout = resources.getLayout(R.layout.tooltip);
+        XmlResourceParser reference = resources.getLayout(R.layout.tourguide_tooltip_default);
+        try {
+            return !sameXml(layout, reference);
+        } catch (XmlPullParserException e) {
+            Log.w("tourguide", "cannot read the tooltip layout, inflating it", e);
+            return true;
+        } catch (IOException e) {
+            Log.w("tourguide", "cannot read the tooltip layout, inflating it", e);
+            return true;
+        } finally {
+            layout.close();
+            reference.close();
+        }
+    }
+
+    private static boolean sameXml(XmlResourceParser a, XmlResourceParser b) throws XmlPullParserException, IOException {
+        while (true) {
+            int event = a.next();
+            if (event != b.next())
+                return false;
+            if (event == XmlPullParser.END_DOCUMENT)
+                return true;
+            if (event != XmlPullParser.START_TAG)
+                continue;
+            if (!a.getName().equals(b.getName()) || a.getAttributeCount() != b.getAttributeCount())
+                return false;
+            for (int i = 0; i < a.getAttributeCount(); i++) {
+                if (a.getAttributeNameResource(i) != b.getAttributeNameResource(i)
+                    || !a.getAttributeName(i).equals(b.getAttributeName(i))
+                    || !a.getAttributeValue(i).equals(b.getAttributeValue(i)))
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * @return true when the app's own {@code R.layout.tooltip} was inflated, its size is then not known to {@link ToolTipPlacementCache}
+     */
+    boolean isInflated() {
+        return mInflated;
+    }
+
+    TextView getTitle() {
+        return mTitle;
+    }
+
+    TextView getDescription() {
+        return mDescription;
+    }
+
+    /**
+     * Show the attributes of a ToolTip, everything that a previous ToolTip may have set is overwritten
+     */
+    void bind(ToolTip toolTip) {
+        if (mContainer != null) {
+            mContainer.setBackgroundColor(toolTip.mBackgroundColor);
+        }
+
+        bindText(mTitle, toolTip.mTitle, toolTip.mTitleColor, toolTip.mTitleGravity);
+        bindText(mDescription, toolTip.mDescription, toolTip.mDescriptionColor, toolTip.mDescriptionGravity);
+
+        if (toolTip.mShadow) {
+            if (mShadow == null) {
+                mShadow = ContextCompat.getDrawable(getContext(), R.drawable.bg_trans_shadow);
+            }
+            setBackgroundDrawable(mShadow);
+        } else {
+            setBackgroundDrawable(null);
+        }
+    }
+
+    private static void bindText(TextView textView, CharSequence text, int color, int gravity) {
+        if (textView == null)
+            return;
+        textView.setTextColor(color);
+        textView.setGravity(gravity);
+        if (text == null || text.length() == 0) {
+            textView.setVisibility(View.GONE);
+        } else {
+            textView.setVisibility(View.VISIBLE);
+            PrecomputedTextCompat precomputed = ToolTipTextCache.getInstance().get(text, TextViewCompat.getTextMetricsParams(textView));
+            if (precomputed != null) {
+                TextViewCompat.setPrecomputedText(textView, precomputed);
+            } else {
+                textView.setText(text);
+            }
+        }
+    }
+
+    /**
+     * Measure the title and description of a ToolTip in the background, with the text metrics of this view
+     */
+    void precomputeText(ToolTip toolTip) {
+        ToolTipTextCache cache = ToolTipTextCache.getInstance();
+        if (mTitle != null) {
+            cache.precompute(toolTip.mTitle, TextViewCompat.getTextMetricsParams(mTitle));
+        }
+        if (mDescription != null) {
+            cache.precompute(toolTip.mDescription, TextViewCompat.getTextMetricsParams(mDescription));
+        }
+    }
+
+    /**
+     * Undo what showing the view did to it: transitions, listener and the translation set by {@link TargetTracker}
+     */
+    void reset() {
+        clearAnimation();
+        setAlpha(1f);
+        setTranslationX(0f);
+        setTranslationY(0f);
+        setOnClickListener(null);
+        setClickable(false);
+    }
+}
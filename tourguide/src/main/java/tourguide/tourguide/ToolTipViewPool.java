@@ -0,0 +1,66 @@
+package tourguide.tourguide;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * {@link ToolTipViewPool} recycles the {@link ToolTipView} of an activity, so the steps of a {@link ChainTourGuide} and repeated
+ * {@link TourGuide#setToolTip(ToolTip)} calls bind a ToolTip to a view that already exists instead of building a new one.
+ * There is one pool per activity, kept on its decor view so it goes away with the activity.
+ */
+final class ToolTipViewPool {
+    private static final int MAX_SIZE = 3;
+
+    private final Context mContext;
+    private final ArrayList<ToolTipView> mViews = new ArrayList<ToolTipView>(MAX_SIZE);
+
+    ToolTipViewPool(Context context) {
+        mContext = context;
+    }
+
+    static ToolTipViewPool get(Activity activity) {
+        View decorView = activity.getWindow().getDecorView();
+        ToolTipViewPool pool = (ToolTipViewPool) decorView.getTag(R.id.tourguide_tooltip_pool);
+        if (pool == null) {
+            pool = new ToolTipViewPool(activity);
+            decorView.setTag(R.id.tourguide_tooltip_pool, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * @return a view without parent, to be bound to a ToolTip
+     */
+    ToolTipView acquire() {
+        int size = mViews.size();
+        if (size > 0) {
+            return mViews.remove(size - 1);
+        }
+        return new ToolTipView(mContext);
+    }
+
+    /**
+     * Start measuring the texts of a ToolTip in the background, with the text metrics of the views of this pool
+     */
+    void precomputeText(ToolTip toolTip) {
+        if (toolTip.getCustomView() != null)
+            return;
+        // the texts are measured the way the pooled views show them, keep the view for the ToolTip that is about to be shown
+        ToolTipView view = acquire();
+        view.precomputeText(toolTip);
+        release(view);
+    }
+
+    /**
+     * Give a view back once it is removed from its parent, it is dropped when the pool is full
+     */
+    void release(ToolTipView view) {
+        if (view.getParent() != null || mViews.size() >= MAX_SIZE || mViews.contains(view))
+            return;
+        view.reset();
+        mViews.add(view);
+    }
+}
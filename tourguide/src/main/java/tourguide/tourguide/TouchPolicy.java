@@ -0,0 +1,70 @@
+package tourguide.tourguide;
+
+/**
+ * {@link TouchPolicy} is the {@link Overlay} and {@link TourGuide.MotionType} configuration compiled into a decision table,
+ * telling {@link FrameLayoutWithHole} where a gesture goes depending on whether it starts inside or outside of the hole.
+ * The route is looked up once on ACTION_DOWN and kept for the rest of the gesture, because whoever handles the down event
+ * receives the following events anyway.
+ * <p>
+ * A policy is immutable, it is compiled again only when the overlay is attached or pointed to another step.
+ */
+final class TouchPolicy {
+
+    enum Route {
+        /* the overlay handles the event with its own listeners, and lets it through to the views below unless they consume it */
+        PASS_THROUGH,
+        /* the overlay handles the event with its own listeners, and never lets it through */
+        CONSUME,
+        /* the overlay takes the gesture and hands it directly to the targeted view, the target's parents never see it */
+        FORWARD_TO_TARGET,
+        /* the overlay takes the gesture and hands it to the view tree of the target below it, parents included, a tap arrives as a cancel */
+        FORWARD_SWIPES
+    }
+
+    static final TouchPolicy PASS_ALL = new TouchPolicy(Route.PASS_THROUGH, Route.PASS_THROUGH);
+
+    private final Route mInside;
+    private final Route mOutside;
+
+    private TouchPolicy(Route inside, Route outside) {
+        mInside = inside;
+        mOutside = outside;
+    }
+
+    /**
+     * @param overlay    overlay holding the listeners and the click through flags, null lets everything through
+     * @param motionType allowed motion on the target, null is the same as {@link TourGuide.MotionType#ALLOW_ALL}
+     * @return the compiled policy
+     */
+    static TouchPolicy compile(Overlay overlay, TourGuide.MotionType motionType) {
+        if (overlay == null) {
+            return PASS_ALL;
+        }
+
+        Route inside;
+        if (overlay.hasTargetListeners() || overlay.mDisableInteractWithTarget) {
+            // block the target, but the overlay's own listeners still see the touch
+            inside = Route.CONSUME;
+        } else if (motionType == TourGuide.MotionType.CLICK_ONLY) {
+            inside = Route.FORWARD_TO_TARGET;
+        } else if (motionType == TourGuide.MotionType.SWIPE_ONLY) {
+            // letting the down event through would hand the whole gesture to the views below, tap included
+            inside = Route.FORWARD_SWIPES;
+        } else {
+            // swipes are often handled by a parent of the target (ViewPager, RecyclerView), so they take the normal dispatch
+            inside = Route.PASS_THROUGH;
+        }
+
+        Route outside = overlay.mOnClickOutsideTargetListener != null || overlay.mDisableClickThrough ? Route.CONSUME : Route.PASS_THROUGH;
+
+        return new TouchPolicy(inside, outside);
+    }
+
+    /**
+     * @param insideHole true when the gesture starts within the hole
+     * @return where the gesture goes
+     */
+    Route route(boolean insideHole) {
+        return insideHole ? mInside : mOutside;
+    }
+}
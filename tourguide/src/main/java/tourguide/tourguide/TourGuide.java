@@ -2,30 +2,25 @@ package tourguide.tourguide;
 
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
-import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
 import android.app.Activity;
-import android.graphics.Color;
 import android.graphics.PixelFormat;
 import android.graphics.Point;
+import android.graphics.Rect;
+import android.graphics.RectF;
 import android.os.Build;
 import android.util.Log;
-import android.view.GestureDetector;
 import android.view.Gravity;
-import android.view.LayoutInflater;
-import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewTreeObserver;
 import android.view.Window;
+import android.view.WindowInsets;
 import android.view.WindowManager;
+import android.view.animation.Animation;
 import android.widget.FrameLayout;
-import android.widget.LinearLayout;
 import android.widget.TextView;
 
-import net.i2p.android.ext.floatingactionbutton.FloatingActionButton;
-
 import androidx.annotation.Nullable;
 import androidx.core.view.ViewCompat;
 import androidx.fragment.app.DialogFragment;
@@ -65,11 +60,17 @@ public class TourGuide {
 
     protected FrameLayoutWithHole mFrameLayout;
 
-    private Activity mActivity;
+    protected Activity mActivity;
 
 
     @Nullable
     private View mToolTipViewGroup;
+    /* the ToolTip mToolTipViewGroup shows, mToolTip may already be the one of the next step when the view leaves */
+    @Nullable
+    private ToolTip mShownToolTip;
+
+    @Nullable
+    private Animator mToolTipTransition;
 
     @Nullable
     private TextView mToolTipTitleTextView;
@@ -79,6 +80,20 @@ public class TourGuide {
 
     private boolean mIsPopupWindow = false;
 
+    /* keeps the hole, pointer and ToolTip on the target, one per TourGuide */
+    private final TargetTracker mTargetTracker = new TargetTracker();
+    /* filled each time the ToolTip is placed, see ToolTipPlacementCache */
+    private final ToolTipPlacementCache.Key mPlacementKey = new ToolTipPlacementCache.Key();
+    private final ToolTipPlacementSolver mPlacementSolver = new ToolTipPlacementSolver();
+    /* the hole the overlay cuts around the target, on screen, which the ToolTip avoids covering */
+    private final HoleGeometry mToolTipHole = new HoleGeometry();
+    /* screen without the system bars, see resolveToolTipBounds() */
+    private final Rect mToolTipBounds = new Rect();
+
+    /* null follows the system animation scales */
+    @Nullable
+    private Boolean mStaticRendering;
+
     public TourGuide isPopupWindow(boolean yesNo) {
         this.mIsPopupWindow = yesNo;
         return this;
@@ -131,6 +146,28 @@ public class TourGuide {
         return this;
     }
 
+    /**
+     * Show the overlay, pointer and ToolTip in their final state, without any animation. By default this follows the system:
+     * static rendering is used when the animator duration or the transition animation scale is 0, e.g. with "Remove animations" turned on.
+     * Forcing it on also gives automated UI tests a deterministic guide that does not keep the main thread busy.
+     *
+     * @param staticRendering true to never animate, false to always animate
+     * @return return TourGuide instance for chaining purpose
+     */
+    public TourGuide setStaticRendering(boolean staticRendering) {
+        mStaticRendering = staticRendering;
+        return this;
+    }
+
+    /**
+     * @return true when nothing is animated, see {@link #setStaticRendering(boolean)}
+     */
+    boolean isStaticRendering() {
+        if (mStaticRendering != null)
+            return mStaticRendering;
+        return mActivity != null && ReducedMotion.isEnabled(mActivity);
+    }
+
     /**
      * Sets the TourGuide to be played on whole screen instead of a target view.
      *
@@ -169,6 +206,10 @@ public class TourGuide {
      * Clean up the tutorial that is added to the activity
      */
     public void cleanUp() {
+        mTargetTracker.stop();
+        if (mGestureHandler != null) {
+            mGestureHandler.bind(null, null);
+        }
         if (mFrameLayout != null) {
             mFrameLayout.cleanUp();
             mFrameLayout = null;
@@ -179,9 +220,7 @@ public class TourGuide {
             // TODO not sure if required?
             mPopupWindowOverlayLayout = null;
         } else if (mToolTipViewGroup != null) {
-            ((ViewGroup) getDecoView()).removeView(mToolTipViewGroup);
-            // TODO not sure if required?
-            mToolTipViewGroup = null;
+            removeToolTipView();
         }
     }
 
@@ -219,17 +258,28 @@ public class TourGuide {
      * @return return TourGuide instance for chaining purpose
      */
     public TourGuide setToolTip(ToolTip toolTip) {
-        mToolTip = toolTip;
+        swapToolTip(toolTip);
         if (mPopupWindowOverlayLayout != null) {
             getWindow().getWindowManager().removeView(mPopupWindowOverlayLayout);
             setupToolTip();
         } else if (mToolTipViewGroup != null) {
-            ((ViewGroup) getDecoView()).removeView(mToolTipViewGroup);
+            removeToolTipView();
             setupToolTip();
         }
         return this;
     }
 
+    /**
+     * Use another ToolTip from the next time the ToolTip is set up, the one showing is left as it is
+     */
+    protected void swapToolTip(ToolTip toolTip) {
+        mToolTip = toolTip;
+        if (toolTip != null && mActivity != null) {
+            // measured in the background until the ToolTip is shown
+            toolTip.precomputeText(mActivity);
+        }
+    }
+
     @Nullable
     public TextView getToolTipTitleTextView() {
         return mToolTipTitleTextView;
@@ -259,12 +309,20 @@ public class TourGuide {
     public void updateToolTipTitleText(CharSequence text) {
         if (mToolTipTitleTextView == null)
             return;
+        if (isStaticRendering()) {
+            mToolTipTitleTextView.setText(text);
+            return;
+        }
         updateViewText(mToolTipTitleTextView, text, getDefaultUpdateToolTipTextOutAnimator(), getDefaultUpdateToolTipTextInAnimator());
     }
 
     public void updateToolTipDescText(CharSequence text) {
         if (mToolTipDescTextView == null)
             return;
+        if (isStaticRendering()) {
+            mToolTipDescTextView.setText(text);
+            return;
+        }
         updateViewText(mToolTipDescTextView, text, getDefaultUpdateToolTipTextOutAnimator(), getDefaultUpdateToolTipTextInAnimator());
     }
 
@@ -288,8 +346,11 @@ public class TourGuide {
             outAnimator.setTarget(tv);
             outAnimator.start();
         } else if (InAnimator != null) {
+            tv.setText(text);
             InAnimator.setTarget(tv);
             InAnimator.start();
+        } else {
+            tv.setText(text);
         }
     }
 
@@ -298,45 +359,6 @@ public class TourGuide {
      * Private methods
      *
      *******/
-    //TODO: move into Pointer
-    private int getXBasedOnGravity(int width, @Nullable int[] highlightedViewPos) {
-        if (highlightedViewPos == null) {
-            highlightedViewPos = getHighlightedViewPos();
-        }
-        int x = highlightedViewPos[0];
-        if ((mPointer.mGravity & Gravity.RIGHT) == Gravity.RIGHT) {
-            return x + mHighlightedView.getWidth() - width;
-        } else if ((mPointer.mGravity & Gravity.LEFT) == Gravity.LEFT) {
-            return x;
-        } else { // this is center
-            return x + mHighlightedView.getWidth() / 2 - width / 2;
-        }
-    }
-
-    //TODO: move into Pointer
-    private int getYBasedOnGravity(int height, @Nullable int[] highlightedViewPos) {
-        if (highlightedViewPos == null) {
-            highlightedViewPos = getHighlightedViewPos();
-        }
-        int y = highlightedViewPos[1];
-
-        if ((mPointer.mGravity & Gravity.BOTTOM) == Gravity.BOTTOM) {
-            return y + mHighlightedView.getHeight() - height;
-        } else if ((mPointer.mGravity & Gravity.TOP) == Gravity.TOP) {
-            return y;
-        } else { // this is center
-            return y + mHighlightedView.getHeight() / 2 - height / 2;
-        }
-    }
-
-    private int[] getHighlightedViewPos() {
-        if (mHighlightedView == null)
-            return new int[]{0, 0};
-        int[] pos = new int[2];
-        mHighlightedView.getLocationOnScreen(pos);
-        return pos;
-    }
-
     protected void setupView() {
         // TourGuide can only be setup after all the views is ready and obtain it's position/measurement
         // so when this is the 1st time TourGuide is being added,
@@ -361,19 +383,140 @@ public class TourGuide {
         }
     }
 
+    /**
+     * Move the overlay that is already showing to the current target, overlay, pointer and tooltip, instead of building a new one.
+     * The overlay view stays attached, only its target and style change, then the pointer and tooltip are set up again.
+     *
+     * @param holeMorphDurationMs when above 0, the hole is animated from the previous target to the new one
+     */
+    protected void rebindView(long holeMorphDurationMs) {
+        mFrameLayout.removeAllViews();
+        mFrameLayout.setOnTouchListener(null);
+        mFrameLayout.setStaticRendering(isStaticRendering());
+        mFrameLayout.rebind(mHighlightedView, mMotionType, mOverlay, holeMorphDurationMs);
+        mTargetTracker.track(mHighlightedView, mFrameLayout);
+
+        /* handle click disable */
+        handleDisableClicking(mFrameLayout);
+
+        /* setup pointer, drawn by the overlay itself */
+        mFrameLayout.setPointer(mPointer);
+        if (mPointer != null) {
+            performPointerAnimation();
+        }
+
+        /* setup tooltip view */
+        removeToolTipView();
+        setupToolTip();
+    }
+
+    /**
+     * Remove the ToolTip view, after its exit animation or fade out when the ToolTip has one
+     */
+    private void removeToolTipView() {
+        if (mToolTipViewGroup == null)
+            return;
+        final View toolTipView = mToolTipViewGroup;
+        // the leaving view plays the exit of the ToolTip it shows
+        final ToolTip toolTip = mShownToolTip;
+        mToolTipViewGroup = null;
+        mShownToolTip = null;
+        // the text views may go to another guide along with the view
+        mToolTipTitleTextView = null;
+        mToolTipDescTextView = null;
+        mTargetTracker.setToolTip(null, 0, 0);
+        // a leaving ToolTip is not in the way anymore
+        toolTipView.setTag(R.id.tourguide_tooltip, null);
+        cancelToolTipTransition();
+        if (toolTipView.getParent() == null)
+            return;
+
+        if (isStaticRendering()) {
+            recycleToolTipView(toolTipView);
+        } else if (toolTip != null && toolTip.mExitAnimation != null) {
+            toolTip.mExitAnimation.setAnimationListener(new Animation.AnimationListener() {
+                @Override
+                public void onAnimationStart(Animation animation) {
+                }
+
+                @Override
+                public void onAnimationRepeat(Animation animation) {
+                }
+
+                @Override
+                public void onAnimationEnd(Animation animation) {
+                    recycleToolTipView(toolTipView);
+                }
+            });
+            toolTipView.startAnimation(toolTip.mExitAnimation);
+        } else if (toolTip != null && toolTip.mFadeOutDuration > 0) {
+            ViewTransitions.fade(toolTipView, toolTipView.getAlpha(), 0f, toolTip.mFadeOutDuration, null, new Runnable() {
+                @Override
+                public void run() {
+                    recycleToolTipView(toolTipView);
+                }
+            });
+        } else {
+            recycleToolTipView(toolTipView);
+        }
+    }
+
+    /**
+     * Start the enter animation of the ToolTip, or fade it in on a hardware layer. Called once the ToolTip view is added,
+     * so the layer can be built right away.
+     */
+    private void performToolTipEnterTransition() {
+        if (mToolTip == null || mToolTipViewGroup == null || isStaticRendering())
+            return;
+
+        if (mToolTip.mEnterAnimation != null) {
+            mToolTipViewGroup.startAnimation(mToolTip.mEnterAnimation);
+        } else if (mToolTip.mFadeInDuration > 0) {
+            mToolTipTransition = ViewTransitions.fade(mToolTipViewGroup, 0f, 1f, mToolTip.mFadeInDuration, mToolTip.mFadeInInterpolator, null);
+        }
+    }
+
+    private void cancelToolTipTransition() {
+        if (mToolTipTransition != null) {
+            mToolTipTransition.cancel();
+            mToolTipTransition = null;
+        }
+    }
+
+    /**
+     * Remove the ToolTip view, and give it back to the pool when it is not a custom view
+     */
+    private void recycleToolTipView(View view) {
+        removeFromParent(view);
+        if (view instanceof ToolTipView && mActivity != null) {
+            ToolTipViewPool.get(mActivity).release((ToolTipView) view);
+        }
+    }
+
+    private static void removeFromParent(View view) {
+        ViewGroup parent = (ViewGroup) view.getParent();
+        if (parent != null) {
+            parent.removeView(view);
+        }
+    }
+
     private void startView() {
         /* Initialize a frame layout with a hole */
         mFrameLayout = new FrameLayoutWithHole(mActivity, mHighlightedView, mMotionType, mOverlay);
+        mFrameLayout.setStaticRendering(isStaticRendering());
 
         /* handle click disable */
         handleDisableClicking(mFrameLayout);
 
-        /* setup floating action button */
+        /* setup pointer, drawn by the overlay itself */
+        mFrameLayout.setPointer(mPointer);
         if (mPointer != null) {
-            final FloatingActionButton fab = setupAndAddFABToFrameLayout(mFrameLayout);
-            performAnimationOn(fab);
+            performPointerAnimation();
         }
 
+        /* follow the target from now on */
+        mTargetTracker.track(mHighlightedView, mFrameLayout);
+
         if (mIsPopupWindow) {
 
             // To fix the issue tooltip flickers. Also tool tip shown under the popup window if it is listPopupWindow.
@@ -405,9 +548,11 @@ public class TourGuide {
 
     }
 
-    private GestureDetector mGestureDetector;
+    /* one gesture handler for the whole lifetime of this TourGuide, it is bound to the overlay of each step */
+    @Nullable
+    private OverlayGestureHandler mGestureHandler;
 
-    private void handleDisableClicking(final FrameLayoutWithHole frameLayoutWithHole) {
+    private void handleDisableClicking(FrameLayoutWithHole frameLayoutWithHole) {
         if (mOverlay == null)
             return;
 
@@ -415,47 +560,16 @@ public class TourGuide {
             .mDisableInteractWithTarget) {
             Log.w("tourguide", "Overlay's default OnClickListener is null, it will proceed to next tourguide when it is clicked");
 
-            mGestureDetector = new GestureDetector(new GestureDetector.SimpleOnGestureListener() {
-                @Override
-                public void onLongPress(MotionEvent e) {
-                    if (frameLayoutWithHole.isWithinTargetBoundary(e) && mOverlay.mOnLongClickTargetListener != null) {
-                        mOverlay.mOnLongClickTargetListener.onLongClick(frameLayoutWithHole);
-                    }
-                }
-
-                @Override
-                public boolean onSingleTapUp(MotionEvent e) {
-                    boolean withinTarget = frameLayoutWithHole.isWithinTargetBoundary(e);
-                    if (withinTarget && mOverlay.mOnClickTargetListener != null) {
-                        mOverlay.mOnClickTargetListener.onClick(frameLayoutWithHole);
-                        return true;
-                    } else if (mOverlay.mOnClickOutsideTargetListener != null) {
-                        mOverlay.mOnClickOutsideTargetListener.onClick(frameLayoutWithHole);
-                        return true;
-                    } else if (!withinTarget && mOverlay.mClickOutsideTargetToCancel) {
-                        if (mOverlay.mOnClickOutsideCancelListener != null)
-                            mOverlay.mOnClickOutsideCancelListener.onCancel(mActivity, TourGuide.this);
-                        else
-                            cleanUp();
-                    }
-                    return false;
-                }
-            });
-
-            frameLayoutWithHole.setOnTouchListener(new View.OnTouchListener() {
-                @Override
-                public boolean onTouch(View v, MotionEvent event) {
-                    if (frameLayoutWithHole.isWithinTargetBoundary(event) && mOverlay.mOnTouchTargetListener != null) {
-                        if (mOverlay.mOnTouchTargetListener.onTouch(v, event))
-                            return true;
-                    }
-                    return mGestureDetector.onTouchEvent(event);
-
-                }
-            });
+            if (mGestureHandler == null) {
+                mGestureHandler = new OverlayGestureHandler(this, mActivity);
+            }
+            mGestureHandler.bind(frameLayoutWithHole, mOverlay);
+            frameLayoutWithHole.setOnTouchListener(mGestureHandler);
 
             frameLayoutWithHole.setViewHole(mHighlightedView);
             frameLayoutWithHole.setSoundEffectsEnabled(false);
+        } else if (mGestureHandler != null) {
+            mGestureHandler.bind(null, null);
         }
 
 
@@ -483,56 +597,30 @@ public class TourGuide {
             FrameLayout.LayoutParams.WRAP_CONTENT);
 
         if (mToolTip != null) {
-            /* inflate and get views */
+            /* get the tooltip view */
 
             ViewGroup parent = (ViewGroup) getDecoView();
 
-            LayoutInflater layoutInflater = mActivity.getLayoutInflater();
-
             if (mToolTip.getCustomView() == null) {
-                mToolTipViewGroup = layoutInflater.inflate(tourguide.tourguide.R.layout.tooltip, null);
-                View toolTipContainer = mToolTipViewGroup.findViewById(tourguide.tourguide.R.id.toolTip_container);
-                mToolTipTitleTextView = (TextView) mToolTipViewGroup.findViewById(tourguide.tourguide.R.id.title);
-                mToolTipDescTextView = (TextView) mToolTipViewGroup.findViewById(tourguide.tourguide.R.id.description);
-
-                /* set tooltip attributes */
-
-                toolTipContainer.setBackgroundColor(mToolTip.mBackgroundColor);
-
-                mToolTipTitleTextView.setTextColor(mToolTip.mTitleColor);
-                mToolTipTitleTextView.setGravity(mToolTip.mTitleGravity);
-
-                mToolTipDescTextView.setTextColor(mToolTip.mDescriptionColor);
-                mToolTipDescTextView.setGravity(mToolTip.mDescriptionGravity);
-
-                if (mToolTip.mTitle == null || mToolTip.mTitle.length() == 0) {
-                    mToolTipTitleTextView.setVisibility(View.GONE);
-                } else {
-                    mToolTipTitleTextView.setVisibility(View.VISIBLE);
-                    mToolTipTitleTextView.setText(mToolTip.mTitle);
-                }
-
-                if (mToolTip.mDescription == null || mToolTip.mDescription.length() == 0) {
-                    mToolTipDescTextView.setVisibility(View.GONE);
-                } else {
-                    mToolTipDescTextView.setVisibility(View.VISIBLE);
-                    mToolTipDescTextView.setText(mToolTip.mDescription);
-                }
+                /* reuse a tooltip view of this activity, or build one, and show the attributes of this tooltip on it */
+                ToolTipView toolTipView = ToolTipViewPool.get(mActivity).acquire();
+                toolTipView.bind(mToolTip);
+                mToolTipViewGroup = toolTipView;
+                mShownToolTip = mToolTip;
+                mToolTipTitleTextView = toolTipView.getTitle();
+                mToolTipDescTextView = toolTipView.getDescription();
 
                 if (mToolTip.mWidth != -1) {
                     layoutParams.width = mToolTip.mWidth;
                 }
             } else {
                 mToolTipViewGroup = mToolTip.getCustomView();
-            }
-
-            mToolTipViewGroup.startAnimation(mToolTip.mEnterAnimation);
-
-            /* add setShadow if it's turned on */
-            if (mToolTip.mShadow) {
+                mShownToolTip = mToolTip;
 
-                // mToolTipViewGroup.setBackgroundDrawable(mActivity.getResources().getDrawable(tourguide.tourguide.R.drawable.drop_shadow));
-                mToolTipViewGroup.setBackgroundDrawable(mActivity.getResources().getDrawable(R.drawable.bg_trans_shadow));
+                /* add setShadow if it's turned on */
+                if (mToolTip.mShadow) {
+                    mToolTipViewGroup.setBackgroundDrawable(mActivity.getResources().getDrawable(R.drawable.bg_trans_shadow));
+                }
             }
 
             /* position and size calculation */
@@ -549,54 +637,33 @@ public class TourGuide {
                     break;
             }
 
-            // get measured size of tooltip
-            // mToolTipViewGroup.measure(FrameLayout.LayoutParams.WRAP_CONTENT, FrameLayout.LayoutParams.WRAP_CONTENT);
-
-            /* Fix the issue the TextView's height is not correctly calculated
-             * https://stackoverflow.com/questions/19908003/getting-height-of-text-view-before-rendering-to-layout
-             * https://stackoverflow.com/questions/30591053/measure-height-of-multi-line-textview-before-rendering
-             * */
-            int widthSpec = View.MeasureSpec.makeMeasureSpec(getScreenWidth(), View.MeasureSpec.AT_MOST);
-            int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
-            mToolTipViewGroup.measure(widthSpec, heightSpec);
-
-            int toolTipMeasuredWidth = mToolTip.mWidth != -1 ? mToolTip.mWidth : mToolTipViewGroup.getMeasuredWidth();
-            int toolTipMeasuredHeight = mToolTipViewGroup.getMeasuredHeight();
-
-            Point resultPoint = new Point(); // this holds the final position of tooltip
-            float density = mActivity.getResources().getDisplayMetrics().density;
-            final float adjustment = mToolTip.mTooltipAndTargetViewOffset * density; //adjustment is that little overlapping area of tooltip and
-            // targeted button
-
-            // calculate x position, based on gravity, tooltipMeasuredWidth, parent max width, x position of target view, adjustment
-            if (toolTipMeasuredWidth > parent.getWidth()) {
-                resultPoint.x = getXForTooTip(mToolTip.mGravity, parent.getWidth(), targetViewX, adjustment);
+            /* a targeted ToolTip is placed by the solver, around the target, within the system bars and away from the other ToolTips */
+            ViewGroup container = mIsPopupWindow ? getPopupWindowOverlayLayout() : parent;
+            int otherToolTips = 0;
+            if (mTarget == Target.VIEW) {
+                resolveToolTipBounds(parent, mToolTipBounds);
+                resolveToolTipHole(targetViewX, targetViewY);
+                otherToolTips = addOtherToolTips(container);
             } else {
-                resultPoint.x = getXForTooTip(mToolTip.mGravity, toolTipMeasuredWidth, targetViewX, adjustment);
+                mToolTipBounds.setEmpty();
+                mToolTipHole.invalidate();
             }
 
-            resultPoint.y = getYForTooTip(mToolTip.mGravity, toolTipMeasuredHeight, targetViewY, adjustment);
-
-            // add view to parent
-            //            ((ViewGroup) mActivity.getWindow().getDecorView().findViewById(android.R.id.content)).addView(mToolTipViewGroup,
-            // layoutParams);
-            // parent.addView(mToolTipViewGroup, layoutParams);
-
-            // 1. width < screen check
-            if (toolTipMeasuredWidth > parent.getWidth()) {
-                layoutParams.width = parent.getWidth();
-                toolTipMeasuredWidth = parent.getWidth();
+            /* the default ToolTip only shows what the ToolTip holds, so where it goes can be looked up instead of measuring it again */
+            ToolTipPlacementCache placementCache = ToolTipPlacementCache.getInstance();
+            ToolTipPlacementCache.Placement placement = null;
+            // where the other ToolTips are is not part of the key
+            boolean cacheable = otherToolTips == 0 && fillPlacementKey(parent, targetViewX, targetViewY);
+            if (cacheable) {
+                placement = placementCache.get(mPlacementKey);
             }
-            // 2. x left boundary check
-            if (resultPoint.x < 0) {
-                resultPoint.x = 0;
-            }
-            // 3. x right boundary check
-            int tempRightX = resultPoint.x + toolTipMeasuredWidth;
-            if (tempRightX > parent.getWidth()) {
-                layoutParams.width = toolTipMeasuredWidth;
-                resultPoint.x = parent.getWidth() - toolTipMeasuredWidth;
+            if (placement == null) {
+                placement = computeToolTipPlacement(parent, layoutParams.width, targetViewX, targetViewY);
+                if (cacheable) {
+                    placementCache.put(mPlacementKey, placement);
+                }
             }
+            layoutParams.width = placement.mLayoutWidth;
 
             // pass toolTip onClickListener into toolTipViewGroup
             // We wrap the tooltip's click listener in order to prevent overlay's click outside to cancel listener.
@@ -612,31 +679,9 @@ public class TourGuide {
             // height boundary can be fixed by user changing the gravity to the other size, since there are plenty of space vertically compared to
             // horizontally
 
-            if (mIsPopupWindow && mToolTipViewGroup != null) {
-
-                // // To fix the issue ListPopupWindow tool tip does not position correctly..
-                getPopupWindowOverlayLayout().getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-
-                    int[] mLastPos = new int[]{0, 0};
-
-                    @Override
-                    public void onGlobalLayout() {
-                        if (mToolTipViewGroup == null) {
-                            removeOnGlobalLayoutListener(mPopupWindowOverlayLayout, this);
-                            return;
-                        }
-                        int[] pos = getHighlightedViewPos();
-
-                        if (pos[0] != mLastPos[0] || pos[1] != mLastPos[1]) {
-                            mLastPos = pos;
-                            ViewGroup.MarginLayoutParams lp = (ViewGroup.MarginLayoutParams) mToolTipViewGroup.getLayoutParams();
-                            int y = getYForTooTip(mToolTip.mGravity, mToolTipViewGroup.getHeight(), pos[1], adjustment);
-                            int x = getXForTooTip(mToolTip.mGravity, mToolTipViewGroup.getWidth(), pos[0], adjustment);
-                            lp.setMargins(x, y, 0, 0);
-                            mToolTipViewGroup.setLayoutParams(lp);
-                        }
-                    }
-                });
+            // the ToolTip follows the target by translation from where it is placed now, see TargetTracker
+            if (mTarget == Target.VIEW) {
+                mTargetTracker.setToolTip(mToolTipViewGroup, targetViewX, targetViewY);
             }
 
 
@@ -664,13 +709,18 @@ public class TourGuide {
             // });
 
             // set the position using setMargins on the left and top
-            layoutParams.setMargins(resultPoint.x, resultPoint.y, 0, 0);
+            layoutParams.setMargins(placement.mX, placement.mY, 0, 0);
+            // let the ToolTips shown after this one avoid it
+            mToolTipViewGroup.setTag(R.id.tourguide_tooltip, new Rect(placement.mX, placement.mY,
+                placement.mX + placement.mMeasuredWidth, placement.mY + placement.mMeasuredHeight));
 
             if (mIsPopupWindow) {
                 getPopupWindowOverlayLayout().addView(mToolTipViewGroup, layoutParams);
             } else
                 parent.addView(mToolTipViewGroup, layoutParams);
 
+            performToolTipEnterTransition();
+
         }
 
     }
@@ -694,134 +744,220 @@ public class TourGuide {
         wm.addView(v, lp);
     }
 
-    private int getXForTooTip(int gravity, int toolTipMeasuredWidth, int targetViewX, float adjustment) {
-        int x = 0;
-
-        switch (mTarget) {
-            case WINDOW:
-                if ((gravity & Gravity.START) == Gravity.START) {
-                    x = 0;
-                } else if ((gravity & Gravity.END) == Gravity.END) {
-                    x = getScreenWidth() - toolTipMeasuredWidth - (int) adjustment;
-                } else {
-                    x = getScreenWidth() / 2 - toolTipMeasuredWidth / 2 - (int) adjustment;
-                }
-                break;
-            case VIEW:
-                if ((gravity & Gravity.START) == Gravity.START) {
-                    x = targetViewX - toolTipMeasuredWidth + (int) adjustment;
-                } else if ((gravity & Gravity.END) == Gravity.END) {
-                    x = targetViewX + mHighlightedView.getWidth() - (int) adjustment;
-                } else {
-                    x = targetViewX + mHighlightedView.getWidth() / 2 - toolTipMeasuredWidth / 2;
-                }
-                break;
+    /**
+     * Area a targeted ToolTip should stay in: the parent, without the system bars
+     */
+    static void resolveToolTipBounds(ViewGroup parent, Rect outBounds) {
+        int height = parent.getHeight() > 0 ? parent.getHeight() : parent.getResources().getDisplayMetrics().heightPixels;
+        outBounds.set(0, 0, parent.getWidth(), height);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            WindowInsets insets = parent.getRootWindowInsets();
+            if (insets != null) {
+                outBounds.left += insets.getSystemWindowInsetLeft();
+                outBounds.top += insets.getSystemWindowInsetTop();
+                outBounds.right -= insets.getSystemWindowInsetRight();
+                outBounds.bottom -= insets.getSystemWindowInsetBottom();
+            }
         }
+    }
 
-        return x;
+    /**
+     * Resolve the hole the overlay cuts around the target in {@link #mToolTipHole}, the same way the overlay does but on screen
+     */
+    private void resolveToolTipHole(int targetViewX, int targetViewY) {
+        if (mOverlay == null) {
+            mToolTipHole.invalidate();
+            return;
+        }
+        float density = mActivity.getResources().getDisplayMetrics().density;
+        mToolTipHole.resolve(targetViewX, targetViewY, mHighlightedView.getWidth(), mHighlightedView.getHeight(), mOverlay, density);
     }
 
-    private int getYForTooTip(int gravity, int toolTipMeasuredHeight, int targetViewY, float adjustment) {
-        int y = 0;
+    /**
+     * Hand the hole around the target to the solver, after the target which it replaces
+     */
+    private void setToolTipHole(ToolTipPlacementSolver solver) {
+        // without a hole the ToolTip still avoids the target itself
+        if (!hasToolTipHole())
+            return;
+        RectF bounds = mToolTipHole.mBounds;
+        solver.setHole(Math.round(bounds.left), Math.round(bounds.top), Math.round(bounds.right), Math.round(bounds.bottom),
+            mToolTipHole.mShape == Overlay.Style.CIRCLE);
+    }
 
-        switch (mTarget) {
-            case WINDOW:
-                switch (gravity) {
-                    case Gravity.TOP:
-                        y = 0;
-                        break;
-                    case Gravity.CENTER:
-                        y = getScreenHeight() / 2 - toolTipMeasuredHeight / 2 - (int) adjustment;
-                        break;
-                    case Gravity.BOTTOM:
-                        y = getScreenHeight() - toolTipMeasuredHeight - (int) adjustment;
-                        break;
-                }
-                break;
-            case VIEW:
-                if ((gravity & Gravity.TOP) == Gravity.TOP) {
+    private boolean hasToolTipHole() {
+        return mToolTipHole.isResolved() && mToolTipHole.mShape != Overlay.Style.NO_HOLE;
+    }
 
-                    if (((gravity & Gravity.LEFT) == Gravity.LEFT) || ((gravity & Gravity.RIGHT) == Gravity.RIGHT)) {
-                        y = targetViewY - toolTipMeasuredHeight + (int) adjustment;
-                    } else {
-                        y = targetViewY - toolTipMeasuredHeight - (int) adjustment;
-                    }
-                } else { // this is center
-                    if (((gravity & Gravity.LEFT) == Gravity.LEFT) || ((gravity & Gravity.RIGHT) == Gravity.RIGHT)) {
-                        y = targetViewY + mHighlightedView.getHeight() - (int) adjustment;
-                    } else {
-                        y = targetViewY + mHighlightedView.getHeight() + (int) adjustment;
-                    }
-                }
-                break;
+    /**
+     * Hand the ToolTips of the other guides shown in the container to the solver
+     *
+     * @return how many there are
+     */
+    private int addOtherToolTips(ViewGroup container) {
+        mPlacementSolver.clearObstacles();
+        int count = 0;
+        for (int i = 0; i < container.getChildCount(); i++) {
+            View child = container.getChildAt(i);
+            Object bounds = child.getTag(R.id.tourguide_tooltip);
+            if (child == mToolTipViewGroup || !(bounds instanceof Rect))
+                continue;
+            // the other ToolTip may have followed its target since it was placed
+            Rect rect = (Rect) bounds;
+            int dx = (int) child.getTranslationX();
+            int dy = (int) child.getTranslationY();
+            if (mPlacementSolver.addObstacle(rect.left + dx, rect.top + dy, rect.right + dx, rect.bottom + dy)) {
+                count++;
+            }
         }
-        return y;
+        return count;
     }
 
-    private FloatingActionButton setupAndAddFABToFrameLayout(final FrameLayoutWithHole frameLayoutWithHole) {
-        // invisFab is invisible, and it's only used for getting the width and height
-        final FloatingActionButton invisFab = new FloatingActionButton(mActivity);
-        invisFab.setSize(FloatingActionButton.SIZE_MINI);
-        invisFab.setVisibility(View.INVISIBLE);
-
-        ((ViewGroup) getDecoView()).addView(invisFab);
-
-        // fab is the real fab that is going to be added
-        final FloatingActionButton fab = new FloatingActionButton(mActivity);
-        fab.setBackgroundColor(Color.BLUE);
-        fab.setSize(FloatingActionButton.SIZE_MINI);
-        fab.setColorNormal(mPointer.mColor);
-        fab.setStrokeVisible(false);
-        fab.setClickable(false);
-
-        // When invisFab is layouted, it's width and height can be used to calculate the correct position of fab
-        invisFab.getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-            @Override
-            public void onGlobalLayout() {
-                // make sure this only run once
-                if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
-                    //noinspection deprecation
-                    invisFab.getViewTreeObserver().removeGlobalOnLayoutListener(this);
-                } else {
-                    invisFab.getViewTreeObserver().removeOnGlobalLayoutListener(this);
-                }
-                final FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT,
-                    LinearLayout.LayoutParams.WRAP_CONTENT);
-
-                final int[] pos = getHighlightedViewPos();
-
-                // measure size of image to be placed
-                params.setMargins(getXBasedOnGravity(invisFab.getWidth(), pos), getYBasedOnGravity(invisFab.getHeight(), pos), 0, 0);
-
-                frameLayoutWithHole.addView(fab, params);
-
-                // To fix the issue ListPopupWindow tool tip does not position correctly..
-                if (mIsPopupWindow && mHighlightedView != null && mFrameLayout != null) {
-                    getPopupWindowOverlayLayout().getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
-                        int[] mLastPos = new int[]{0, 0};
-
-                        @Override
-                        public void onGlobalLayout() {
-                            if (mFrameLayout == null) {
-                                removeOnGlobalLayoutListener(mPopupWindowOverlayLayout, this);
-                                return;
-                            }
-                            final int[] pos = getHighlightedViewPos();
-
-                            if (pos[0] != mLastPos[0] || pos[1] != mLastPos[1]) {
-                                mLastPos = pos;
-                                final ViewGroup.MarginLayoutParams lp = (ViewGroup.MarginLayoutParams) fab.getLayoutParams();
-                                lp.setMargins(getXBasedOnGravity(fab.getWidth(), pos), getYBasedOnGravity(fab.getHeight(), pos), 0, 0);
-                                fab.setLayoutParams(lp);
-                            }
-                        }
-                    });
-                }
+    /**
+     * Describe the default ToolTip about to be placed in {@link #mPlacementKey}
+     *
+     * @return false when the ToolTip cannot be looked up, i.e. it has a custom view or the app's own tooltip layout
+     */
+    private boolean fillPlacementKey(ViewGroup parent, int targetViewX, int targetViewY) {
+        if (!(mToolTipViewGroup instanceof ToolTipView) || ((ToolTipView) mToolTipViewGroup).isInflated())
+            return false;
+        ToolTipView toolTipView = (ToolTipView) mToolTipViewGroup;
+        ToolTipPlacementCache.Key key = mPlacementKey;
+        key.mTitle = mToolTip.mTitle;
+        key.mDescription = mToolTip.mDescription;
+        // the text sizes follow the theme and the font scale
+        key.mTitleTextSize = toolTipView.getTitle().getTextSize();
+        key.mDescriptionTextSize = toolTipView.getDescription().getTextSize();
+        key.mShadow = mToolTip.mShadow;
+        key.mWidth = mToolTip.mWidth;
+        key.mGravity = mToolTip.mGravity;
+        key.mOffset = mToolTip.mTooltipAndTargetViewOffset;
+        key.mDensity = mActivity.getResources().getDisplayMetrics().density;
+        key.mMaxWidth = getScreenWidth();
+        key.mParentWidth = parent.getWidth();
+        key.mScreenHeight = getScreenHeight();
+        key.mBoundsLeft = mToolTipBounds.left;
+        key.mBoundsTop = mToolTipBounds.top;
+        key.mBoundsRight = mToolTipBounds.right;
+        key.mBoundsBottom = mToolTipBounds.bottom;
+        key.mTargetX = targetViewX;
+        key.mTargetY = targetViewY;
+        key.mTargetWidth = mTarget == Target.VIEW ? mHighlightedView.getWidth() : 0;
+        key.mTargetHeight = mTarget == Target.VIEW ? mHighlightedView.getHeight() : 0;
+        boolean hole = hasToolTipHole();
+        key.mHoleLeft = hole ? Math.round(mToolTipHole.mBounds.left) : targetViewX;
+        key.mHoleTop = hole ? Math.round(mToolTipHole.mBounds.top) : targetViewY;
+        key.mHoleRight = hole ? Math.round(mToolTipHole.mBounds.right) : targetViewX + key.mTargetWidth;
+        key.mHoleBottom = hole ? Math.round(mToolTipHole.mBounds.bottom) : targetViewY + key.mTargetHeight;
+        key.mHoleCircle = hole && mToolTipHole.mShape == Overlay.Style.CIRCLE;
+        return true;
+    }
+
+    /**
+     * Measure the ToolTip and compute where it goes, clamped to its parent
+     *
+     * @param layoutWidth width of the ToolTip's layout params before clamping
+     */
+    private ToolTipPlacementCache.Placement computeToolTipPlacement(ViewGroup parent, int layoutWidth, int targetViewX, int targetViewY) {
+        // get measured size of tooltip
+        // mToolTipViewGroup.measure(FrameLayout.LayoutParams.WRAP_CONTENT, FrameLayout.LayoutParams.WRAP_CONTENT);
+
+        /* Fix the issue the TextView's height is not correctly calculated
+         * https://stackoverflow.com/questions/19908003/getting-height-of-text-view-before-rendering-to-layout
+         * https://stackoverflow.com/questions/30591053/measure-height-of-multi-line-textview-before-rendering
+         * */
+        int widthSpec = View.MeasureSpec.makeMeasureSpec(getScreenWidth(), View.MeasureSpec.AT_MOST);
+        int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mToolTipViewGroup.measure(widthSpec, heightSpec);
+
+        int toolTipMeasuredWidth = mToolTip.mWidth != -1 ? mToolTip.mWidth : mToolTipViewGroup.getMeasuredWidth();
+        int toolTipMeasuredHeight = mToolTipViewGroup.getMeasuredHeight();
+
+        float density = mActivity.getResources().getDisplayMetrics().density;
+        final float adjustment = mToolTip.mTooltipAndTargetViewOffset * density; //adjustment is that little overlapping area of tooltip and
+        // targeted button
+
+        if (mTarget == Target.VIEW) {
+            // 1. width < screen check
+            if (toolTipMeasuredWidth > mToolTipBounds.width()) {
+                layoutWidth = mToolTipBounds.width();
+                toolTipMeasuredWidth = mToolTipBounds.width();
+            }
+            ToolTipPlacementSolver solver = mPlacementSolver;
+            solver.setBounds(mToolTipBounds.left, mToolTipBounds.top, mToolTipBounds.right, mToolTipBounds.bottom);
+            solver.setTarget(targetViewX, targetViewY, targetViewX + mHighlightedView.getWidth(), targetViewY + mHighlightedView.getHeight());
+            setToolTipHole(solver);
+            solver.setOffset((int) adjustment);
+            solver.solve(mToolTip.mGravity, toolTipMeasuredWidth, toolTipMeasuredHeight);
+            // 2. keep the width when the ToolTip was shifted against the right edge
+            if (solver.mX + toolTipMeasuredWidth >= parent.getWidth()) {
+                layoutWidth = toolTipMeasuredWidth;
             }
-        });
+            return new ToolTipPlacementCache.Placement(toolTipMeasuredWidth, toolTipMeasuredHeight, layoutWidth, solver.mX, solver.mY);
+        }
+
+        Point resultPoint = new Point(); // this holds the final position of tooltip
+
+        // calculate x position, based on gravity, tooltipMeasuredWidth, parent max width, adjustment
+        if (toolTipMeasuredWidth > parent.getWidth()) {
+            resultPoint.x = getXForTooTip(mToolTip.mGravity, parent.getWidth(), adjustment);
+        } else {
+            resultPoint.x = getXForTooTip(mToolTip.mGravity, toolTipMeasuredWidth, adjustment);
+        }
+
+        resultPoint.y = getYForTooTip(mToolTip.mGravity, toolTipMeasuredHeight, adjustment);
 
+        // 1. width < screen check
+        if (toolTipMeasuredWidth > parent.getWidth()) {
+            layoutWidth = parent.getWidth();
+            toolTipMeasuredWidth = parent.getWidth();
+        }
+        // 2. x left boundary check
+        if (resultPoint.x < 0) {
+            resultPoint.x = 0;
+        }
+        // 3. x right boundary check
+        int tempRightX = resultPoint.x + toolTipMeasuredWidth;
+        if (tempRightX > parent.getWidth()) {
+            layoutWidth = toolTipMeasuredWidth;
+            resultPoint.x = parent.getWidth() - toolTipMeasuredWidth;
+        }
+
+        return new ToolTipPlacementCache.Placement(toolTipMeasuredWidth, toolTipMeasuredHeight, layoutWidth, resultPoint.x, resultPoint.y);
+    }
+
+    /**
+     * x of a ToolTip covering the window, a targeted ToolTip is placed by {@link ToolTipPlacementSolver}
+     */
+    private int getXForTooTip(int gravity, int toolTipMeasuredWidth, float adjustment) {
+        int x;
+        if ((gravity & Gravity.START) == Gravity.START) {
+            x = 0;
+        } else if ((gravity & Gravity.END) == Gravity.END) {
+            x = getScreenWidth() - toolTipMeasuredWidth - (int) adjustment;
+        } else {
+            x = getScreenWidth() / 2 - toolTipMeasuredWidth / 2 - (int) adjustment;
+        }
+        return x;
+    }
 
-        return fab;
+    /**
+     * y of a ToolTip covering the window, a targeted ToolTip is placed by {@link ToolTipPlacementSolver}
+     */
+    private int getYForTooTip(int gravity, int toolTipMeasuredHeight, float adjustment) {
+        int y = 0;
+        switch (gravity) {
+            case Gravity.TOP:
+                y = 0;
+                break;
+            case Gravity.CENTER:
+                y = getScreenHeight() / 2 - toolTipMeasuredHeight / 2 - (int) adjustment;
+                break;
+            case Gravity.BOTTOM:
+                y = getScreenHeight() - toolTipMeasuredHeight - (int) adjustment;
+                break;
+        }
+        return y;
     }
 
     private void setupFrameLayout() {
@@ -835,212 +971,19 @@ public class TourGuide {
 
             int[] pos = new int[2];
             contentArea.getLocationOnScreen(pos);
-            // frameLayoutWithHole's coordinates are calculated taking full screen height into account
-            // but we're adding it to the content area only, so we need to offset it to the same Y value of contentArea
+            // we're adding it to the content area only, so it is offset up to the top of the window to cover the action bar as well.
+            // The hole is resolved relative to the overlay itself, so it stays on the target whatever the offset is
 
             layoutParams.setMargins(0, -pos[1], 0, 0);
             contentArea.addView(mFrameLayout, layoutParams);
         }
     }
 
-    private void performAnimationOn(final View view) {
-
-        if (mTechnique != null && mTechnique == Technique.HORIZONTAL_LEFT) {
-
-            final AnimatorSet animatorSet = new AnimatorSet();
-            final AnimatorSet animatorSet2 = new AnimatorSet();
-            Animator.AnimatorListener lis1 = new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationCancel(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationRepeat(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animator) {
-                    view.setScaleX(1f);
-                    view.setScaleY(1f);
-                    view.setTranslationX(0);
-                    animatorSet2.start();
-                }
-            };
-            Animator.AnimatorListener lis2 = new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationCancel(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationRepeat(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animator) {
-                    view.setScaleX(1f);
-                    view.setScaleY(1f);
-                    view.setTranslationX(0);
-                    animatorSet.start();
-                }
-            };
-
-            long fadeInDuration = 800;
-            long scaleDownDuration = 800;
-            long goLeftXDuration = 2000;
-            long fadeOutDuration = goLeftXDuration;
-            float translationX = getScreenWidth() / 2;
-
-            final ValueAnimator fadeInAnim = ObjectAnimator.ofFloat(view, "alpha", 0f, 1f);
-            fadeInAnim.setDuration(fadeInDuration);
-            final ObjectAnimator scaleDownX = ObjectAnimator.ofFloat(view, "scaleX", 1f, 0.85f);
-            scaleDownX.setDuration(scaleDownDuration);
-            final ObjectAnimator scaleDownY = ObjectAnimator.ofFloat(view, "scaleY", 1f, 0.85f);
-            scaleDownY.setDuration(scaleDownDuration);
-            final ObjectAnimator goLeftX = ObjectAnimator.ofFloat(view, "translationX", -translationX);
-            goLeftX.setDuration(goLeftXDuration);
-            final ValueAnimator fadeOutAnim = ObjectAnimator.ofFloat(view, "alpha", 1f, 0f);
-            fadeOutAnim.setDuration(fadeOutDuration);
-
-            final ValueAnimator fadeInAnim2 = ObjectAnimator.ofFloat(view, "alpha", 0f, 1f);
-            fadeInAnim2.setDuration(fadeInDuration);
-            final ObjectAnimator scaleDownX2 = ObjectAnimator.ofFloat(view, "scaleX", 1f, 0.85f);
-            scaleDownX2.setDuration(scaleDownDuration);
-            final ObjectAnimator scaleDownY2 = ObjectAnimator.ofFloat(view, "scaleY", 1f, 0.85f);
-            scaleDownY2.setDuration(scaleDownDuration);
-            final ObjectAnimator goLeftX2 = ObjectAnimator.ofFloat(view, "translationX", -translationX);
-            goLeftX2.setDuration(goLeftXDuration);
-            final ValueAnimator fadeOutAnim2 = ObjectAnimator.ofFloat(view, "alpha", 1f, 0f);
-            fadeOutAnim2.setDuration(fadeOutDuration);
-
-            animatorSet.play(fadeInAnim);
-            animatorSet.play(scaleDownX).with(scaleDownY).after(fadeInAnim);
-            animatorSet.play(goLeftX).with(fadeOutAnim).after(scaleDownY);
-
-            animatorSet2.play(fadeInAnim2);
-            animatorSet2.play(scaleDownX2).with(scaleDownY2).after(fadeInAnim2);
-            animatorSet2.play(goLeftX2).with(fadeOutAnim2).after(scaleDownY2);
-
-            animatorSet.addListener(lis1);
-            animatorSet2.addListener(lis2);
-            animatorSet.start();
-
-            /* these animatorSets are kept track in FrameLayout, so that they can be cleaned up when FrameLayout is detached from window */
-            mFrameLayout.addAnimatorSet(animatorSet);
-            mFrameLayout.addAnimatorSet(animatorSet2);
-        } else if (mTechnique != null && mTechnique == Technique.HORIZONTAL_RIGHT) { //TODO: new feature
-
-        } else if (mTechnique != null && mTechnique == Technique.VERTICAL_UPWARD) {//TODO: new feature
-
-        } else if (mTechnique != null && mTechnique == Technique.VERTICAL_DOWNWARD) {//TODO: new feature
-
-        } else { // do click for default case
-            final AnimatorSet animatorSet = new AnimatorSet();
-            final AnimatorSet animatorSet2 = new AnimatorSet();
-            Animator.AnimatorListener lis1 = new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationCancel(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationRepeat(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animator) {
-                    view.setScaleX(1f);
-                    view.setScaleY(1f);
-                    view.setTranslationX(0);
-                    animatorSet2.start();
-                }
-            };
-            Animator.AnimatorListener lis2 = new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationCancel(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationRepeat(Animator animator) {
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animator) {
-                    view.setScaleX(1f);
-                    view.setScaleY(1f);
-                    view.setTranslationX(0);
-                    animatorSet.start();
-                }
-            };
-
-            long fadeInDuration = 800;
-            long scaleDownDuration = 800;
-            long fadeOutDuration = 800;
-            long delay = 1000;
-
-            final ValueAnimator delayAnim = ObjectAnimator.ofFloat(view, "translationX", 0);
-            delayAnim.setDuration(delay);
-            final ValueAnimator fadeInAnim = ObjectAnimator.ofFloat(view, "alpha", 0f, 1f);
-            fadeInAnim.setDuration(fadeInDuration);
-            final ObjectAnimator scaleDownX = ObjectAnimator.ofFloat(view, "scaleX", 1f, 0.85f);
-            scaleDownX.setDuration(scaleDownDuration);
-            final ObjectAnimator scaleDownY = ObjectAnimator.ofFloat(view, "scaleY", 1f, 0.85f);
-            scaleDownY.setDuration(scaleDownDuration);
-            final ObjectAnimator scaleUpX = ObjectAnimator.ofFloat(view, "scaleX", 0.85f, 1f);
-            scaleUpX.setDuration(scaleDownDuration);
-            final ObjectAnimator scaleUpY = ObjectAnimator.ofFloat(view, "scaleY", 0.85f, 1f);
-            scaleUpY.setDuration(scaleDownDuration);
-            final ValueAnimator fadeOutAnim = ObjectAnimator.ofFloat(view, "alpha", 1f, 0f);
-            fadeOutAnim.setDuration(fadeOutDuration);
-
-            final ValueAnimator delayAnim2 = ObjectAnimator.ofFloat(view, "translationX", 0);
-            delayAnim2.setDuration(delay);
-            final ValueAnimator fadeInAnim2 = ObjectAnimator.ofFloat(view, "alpha", 0f, 1f);
-            fadeInAnim2.setDuration(fadeInDuration);
-            final ObjectAnimator scaleDownX2 = ObjectAnimator.ofFloat(view, "scaleX", 1f, 0.85f);
-            scaleDownX2.setDuration(scaleDownDuration);
-            final ObjectAnimator scaleDownY2 = ObjectAnimator.ofFloat(view, "scaleY", 1f, 0.85f);
-            scaleDownY2.setDuration(scaleDownDuration);
-            final ObjectAnimator scaleUpX2 = ObjectAnimator.ofFloat(view, "scaleX", 0.85f, 1f);
-            scaleUpX2.setDuration(scaleDownDuration);
-            final ObjectAnimator scaleUpY2 = ObjectAnimator.ofFloat(view, "scaleY", 0.85f, 1f);
-            scaleUpY2.setDuration(scaleDownDuration);
-            final ValueAnimator fadeOutAnim2 = ObjectAnimator.ofFloat(view, "alpha", 1f, 0f);
-            fadeOutAnim2.setDuration(fadeOutDuration);
-            view.setAlpha(0);
-            animatorSet.setStartDelay(mToolTip != null ? mToolTip.mEnterAnimation.getDuration() : 0);
-            animatorSet.play(fadeInAnim);
-            animatorSet.play(scaleDownX).with(scaleDownY).after(fadeInAnim);
-            animatorSet.play(scaleUpX).with(scaleUpY).with(fadeOutAnim).after(scaleDownY);
-            animatorSet.play(delayAnim).after(scaleUpY);
-
-            animatorSet2.play(fadeInAnim2);
-            animatorSet2.play(scaleDownX2).with(scaleDownY2).after(fadeInAnim2);
-            animatorSet2.play(scaleUpX2).with(scaleUpY2).with(fadeOutAnim2).after(scaleDownY2);
-            animatorSet2.play(delayAnim2).after(scaleUpY2);
-
-            animatorSet.addListener(lis1);
-            animatorSet2.addListener(lis2);
-            animatorSet.start();
-
-            /* these animatorSets are kept track in FrameLayout, so that they can be cleaned up when FrameLayout is detached from window */
-            mFrameLayout.addAnimatorSet(animatorSet);
-            mFrameLayout.addAnimatorSet(animatorSet2);
-        }
+    private void performPointerAnimation() {
+        // the swipes travel half the width of the screen, and the click waits for the ToolTip to come in
+        float distance = getScreenWidth() / 2;
+        long startDelay = mTechnique == null || mTechnique == Technique.CLICK ? (mToolTip != null ? mToolTip.getEnterDuration() : 0) : 0;
+        mFrameLayout.startPointerAnimation(mTechnique, distance, startDelay);
     }
 
     private int getScreenWidth() {
@@ -1085,14 +1028,4 @@ public class TourGuide {
         ALLOW_ALL, CLICK_ONLY, SWIPE_ONLY
     }
 
-    private void removeOnGlobalLayoutListener(@Nullable View v, ViewTreeObserver.OnGlobalLayoutListener listener) {
-        if (v == null)
-            return;
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
-            v.getViewTreeObserver().removeOnGlobalLayoutListener(listener);
-        } else {
-            v.getViewTreeObserver().removeGlobalOnLayoutListener(listener);
-        }
-    }
-
 }
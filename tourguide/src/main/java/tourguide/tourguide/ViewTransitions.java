@@ -0,0 +1,70 @@
+package tourguide.tourguide;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ObjectAnimator;
+import android.animation.TimeInterpolator;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
+
+/**
+ * Enter and exit transitions of the overlay and the tooltip, run as property animations on a temporary hardware layer.
+ * The view is rasterized into the layer once, then only the layer is composited with a changing alpha during the fade.
+ */
+final class ViewTransitions {
+
+    private ViewTransitions() {
+    }
+
+    /**
+     * Fade a view from one alpha to another
+     *
+     * @param view         view to fade
+     * @param from         alpha at the start
+     * @param to           alpha at the end
+     * @param durationMs   duration of the fade
+     * @param interpolator interpolator of the fade, null for the default one
+     * @param endAction    run once the fade ends or is cancelled, may be null
+     * @return the started animator
+     */
+    static Animator fade(final View view, float from, float to, long durationMs, @Nullable TimeInterpolator interpolator,
+                         @Nullable final Runnable endAction) {
+        final ObjectAnimator animator = ObjectAnimator.ofFloat(view, View.ALPHA, from, to);
+        animator.setDuration(durationMs);
+        if (interpolator != null) {
+            animator.setInterpolator(interpolator);
+        }
+        animator.addListener(new AnimatorListenerAdapter() {
+            private boolean mOwnsLayer;
+
+            @Override
+            public void onAnimationStart(Animator animation) {
+                // a view that already has a layer (e.g. the overlay cutting its hole on a hardware layer) keeps it as it is,
+                // and without hardware acceleration the fade simply redraws the view
+                if (view.getLayerType() == View.LAYER_TYPE_NONE && view.isHardwareAccelerated()) {
+                    mOwnsLayer = true;
+                    view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                    if (ViewCompat.isAttachedToWindow(view)) {
+                        view.buildLayer();
+                    }
+                }
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                if (mOwnsLayer) {
+                    mOwnsLayer = false;
+                    view.setLayerType(View.LAYER_TYPE_NONE, null);
+                }
+                if (endAction != null) {
+                    endAction.run();
+                }
+            }
+        });
+        view.setAlpha(from);
+        animator.start();
+        return animator;
+    }
+}
@@ -0,0 +1,46 @@
+package tourguide.tourguide;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads the bytes allocated by the current thread, used by the JVM tests to prove that hot paths do not allocate.
+ */
+final class Allocations {
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations() {
+    }
+
+    static long allocatedBytes() {
+        return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return bytes allocated by {@link #allocatedBytes()} itself, to be subtracted from a measurement
+     */
+    static long measurementOverhead() {
+        allocatedBytes();
+        long before = allocatedBytes();
+        return allocatedBytes() - before;
+    }
+
+    /**
+     * Run the work several times and return the smallest amount of bytes allocated by one run.
+     * The first runs absorb one-off allocations of the runtime (class loading, JIT), which are not caused by the code under test.
+     *
+     * @param work   code under test
+     * @param rounds how many times the work is run
+     * @return bytes allocated by the cheapest run
+     */
+    static long minAllocatedBytes(Runnable work, int rounds) {
+        long overhead = measurementOverhead();
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long before = allocatedBytes();
+            work.run();
+            min = Math.min(min, allocatedBytes() - before - overhead);
+        }
+        return min;
+    }
+}
@@ -0,0 +1,73 @@
+package tourguide.tourguide;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PointerKeyframesTest {
+    private static final float DISTANCE = 500f;
+
+    @Test
+    public void clickFadesInPressesAndFadesOut() {
+        PointerKeyframes click = PointerKeyframes.forTechnique(TourGuide.Technique.CLICK, DISTANCE);
+
+        assertEquals(3400, click.getCycleDuration());
+        assertEquals(0f, click.valueAt(PointerKeyframes.ALPHA, 0), 0f);
+        assertEquals(1f, click.valueAt(PointerKeyframes.ALPHA, 800), 0f);
+        assertEquals(0.85f, click.valueAt(PointerKeyframes.SCALE, 1600), 0f);
+        assertEquals(1f, click.valueAt(PointerKeyframes.SCALE, 2400), 0f);
+        assertEquals(0f, click.valueAt(PointerKeyframes.ALPHA, 3000), 0f);
+        assertEquals(0f, click.valueAt(PointerKeyframes.TRANSLATION_X, 2000), 0f);
+    }
+
+    @Test
+    public void segmentsAreEasedInAndOut() {
+        PointerKeyframes click = PointerKeyframes.forTechnique(null, DISTANCE);
+
+        assertEquals(0.5f, click.valueAt(PointerKeyframes.ALPHA, 400), 0.0001f);
+        // slower than linear at the start of a segment
+        assertEquals(true, click.valueAt(PointerKeyframes.ALPHA, 200) < 0.25f);
+    }
+
+    @Test
+    public void everySwipeTravelsTheDistanceInItsOwnDirection() {
+        assertSwipe(TourGuide.Technique.HORIZONTAL_LEFT, -DISTANCE, 0);
+        assertSwipe(TourGuide.Technique.HORIZONTAL_RIGHT, DISTANCE, 0);
+        assertSwipe(TourGuide.Technique.VERTICAL_UPWARD, 0, -DISTANCE);
+        assertSwipe(TourGuide.Technique.VERTICAL_DOWNWARD, 0, DISTANCE);
+    }
+
+    private static void assertSwipe(TourGuide.Technique technique, float translationX, float translationY) {
+        PointerKeyframes swipe = PointerKeyframes.forTechnique(technique, DISTANCE);
+        long end = swipe.getCycleDuration();
+
+        assertEquals(3600, end);
+        assertEquals(technique + " starts in place", 0f, swipe.valueAt(PointerKeyframes.TRANSLATION_X, 0), 0f);
+        assertEquals(technique + " holds still while pressing", 0f, swipe.valueAt(PointerKeyframes.TRANSLATION_Y, 1200), 0f);
+        assertEquals(technique + " x", translationX, swipe.valueAt(PointerKeyframes.TRANSLATION_X, end), 0f);
+        assertEquals(technique + " y", translationY, swipe.valueAt(PointerKeyframes.TRANSLATION_Y, end), 0f);
+        assertEquals(technique + " faded out", 0f, swipe.valueAt(PointerKeyframes.ALPHA, end), 0f);
+    }
+
+    @Test
+    public void samplingALoopDoesNotAllocate() {
+        for (TourGuide.Technique technique : TourGuide.Technique.values()) {
+            final PointerKeyframes keyframes = PointerKeyframes.forTechnique(technique, DISTANCE);
+
+            long allocated = Allocations.minAllocatedBytes(new Runnable() {
+                @Override
+                public void run() {
+                    // one sample per frame at 60fps, over ten loops
+                    for (long time = 0; time < keyframes.getCycleDuration() * 10; time += 16) {
+                        long playTime = time % keyframes.getCycleDuration();
+                        for (int channel = 0; channel < PointerKeyframes.CHANNEL_COUNT; channel++) {
+                            keyframes.valueAt(channel, playTime);
+                        }
+                    }
+                }
+            }, 3);
+
+            assertEquals(technique + " allocated while looping", 0, allocated);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package tourguide.tourguide;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ToolTipPlacementCacheTest {
+
+    private static ToolTipPlacementCache.Key key(String title, int targetX) {
+        ToolTipPlacementCache.Key key = new ToolTipPlacementCache.Key();
+        key.mTitle = title;
+        key.mDescription = "Description";
+        key.mTitleTextSize = 40f;
+        key.mDescriptionTextSize = 28f;
+        key.mWidth = -1;
+        key.mGravity = 80;
+        key.mOffset = 10;
+        key.mDensity = 2f;
+        key.mMaxWidth = 1080;
+        key.mParentWidth = 1080;
+        key.mScreenHeight = 1920;
+        key.mTargetX = targetX;
+        key.mTargetY = 300;
+        key.mTargetWidth = 100;
+        key.mTargetHeight = 50;
+        return key;
+    }
+
+    private static ToolTipPlacementCache.Placement placement(int x) {
+        return new ToolTipPlacementCache.Placement(400, 200, -2, x, 370);
+    }
+
+    @Test
+    public void equalContentAndConstraintsHit() {
+        ToolTipPlacementCache cache = new ToolTipPlacementCache(4);
+        ToolTipPlacementCache.Placement placement = placement(10);
+        cache.put(key("Title", 100), placement);
+
+        // the texts are compared by content, not by instance
+        assertSame(placement, cache.get(key(new String("Title"), 100)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void anyDifferenceMisses() {
+        ToolTipPlacementCache cache = new ToolTipPlacementCache(4);
+        cache.put(key("Title", 100), placement(10));
+
+        assertNull(cache.get(key("Other title", 100)));
+        assertNull(cache.get(key("Title", 101)));
+
+        ToolTipPlacementCache.Key rotated = key("Title", 100);
+        rotated.mParentWidth = 1920;
+        assertNull(cache.get(rotated));
+
+        ToolTipPlacementCache.Key noTitle = key(null, 100);
+        assertNull(cache.get(noTitle));
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void keyIsCopiedSoItCanBeReused() {
+        ToolTipPlacementCache cache = new ToolTipPlacementCache(4);
+        ToolTipPlacementCache.Key key = key("Title", 100);
+        cache.put(key, placement(10));
+
+        key.mTargetX = 200;
+        assertNull(cache.get(key));
+        key.mTargetX = 100;
+        assertNotNull(cache.get(key));
+    }
+
+    @Test
+    public void textChangedAfterPutDoesNotAlterTheCachedKey() {
+        ToolTipPlacementCache cache = new ToolTipPlacementCache(4);
+        StringBuilder title = new StringBuilder("Title");
+        ToolTipPlacementCache.Placement placement = placement(10);
+        ToolTipPlacementCache.Key key = key(null, 100);
+        key.mTitle = title;
+        cache.put(key, placement);
+
+        // the text the key is looked up with may be mutable as well, it is compared by content
+        assertSame(placement, cache.get(key));
+
+        title.append(" changed");
+        assertNull(cache.get(key));
+        assertSame(placement, cache.get(key("Title", 100)));
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void leastRecentlyUsedPlacementIsEvicted() {
+        ToolTipPlacementCache cache = new ToolTipPlacementCache(2);
+        cache.put(key("Title", 1), placement(1));
+        cache.put(key("Title", 2), placement(2));
+        // touch the first one, the second one is now the eldest
+        assertNotNull(cache.get(key("Title", 1)));
+        cache.put(key("Title", 3), placement(3));
+
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.getSize());
+        assertNotNull(cache.get(key("Title", 1)));
+        assertNull(cache.get(key("Title", 2)));
+        assertNotNull(cache.get(key("Title", 3)));
+    }
+
+    @Test
+    public void shrinkingAndClearingEvict() {
+        ToolTipPlacementCache cache = new ToolTipPlacementCache(4);
+        cache.put(key("Title", 1), placement(1));
+        cache.put(key("Title", 2), placement(2));
+        cache.put(key("Title", 3), placement(3));
+
+        cache.setMaxSize(1);
+        assertEquals(1, cache.getSize());
+        assertEquals(2, cache.getEvictionCount());
+        assertNotNull(cache.get(key("Title", 3)));
+
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertEquals(3, cache.getEvictionCount());
+
+        // a size of 0 disables caching
+        cache.setMaxSize(0);
+        cache.put(key("Title", 1), placement(1));
+        assertEquals(0, cache.getSize());
+    }
+}
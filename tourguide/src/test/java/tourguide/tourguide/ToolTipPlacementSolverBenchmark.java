@@ -0,0 +1,63 @@
+package tourguide.tourguide;
+
+import android.view.Gravity;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Solves the placement of a ToolTip for targets all over the screen, with as many other ToolTips to avoid as the solver takes.
+ * Solving runs each time a ToolTip is shown and must not allocate.
+ */
+public class ToolTipPlacementSolverBenchmark {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int TARGET_SIZE = 150;
+    private static final int SOLVES_PER_ROUND = 2000;
+    private static final int ROUNDS = 100;
+
+    @Test
+    public void solveDoesNotAllocate() {
+        final ToolTipPlacementSolver solver = solver();
+
+        long allocated = Allocations.minAllocatedBytes(new Runnable() {
+            @Override
+            public void run() {
+                round(solver);
+            }
+        }, 3);
+
+        assertEquals("solving allocated", 0, allocated);
+    }
+
+    /**
+     * The worst case: every obstacle slot is taken, spread over the screen so most candidates cover something
+     */
+    private static ToolTipPlacementSolver solver() {
+        ToolTipPlacementSolver solver = new ToolTipPlacementSolver();
+        solver.setBounds(0, 48, WIDTH, HEIGHT - 96);
+        solver.setOffset(20);
+        for (int i = 0; i < ToolTipPlacementSolver.MAX_OBSTACLES; i++) {
+            int x = (i % 4) * WIDTH / 4;
+            int y = (i / 4) * HEIGHT / 4;
+            solver.addObstacle(x, y, x + 300, y + 200);
+        }
+        return solver;
+    }
+
+    /**
+     * Targets along a diagonal of the screen, alternating the requested gravity
+     */
+    private static long round(ToolTipPlacementSolver solver) {
+        long sum = 0;
+        for (int i = 0; i < SOLVES_PER_ROUND; i++) {
+            int x = (WIDTH - TARGET_SIZE) * i / SOLVES_PER_ROUND;
+            int y = (HEIGHT - TARGET_SIZE) * i / SOLVES_PER_ROUND;
+            solver.setTarget(x, y, x + TARGET_SIZE, y + TARGET_SIZE);
+            solver.solve((i & 1) == 0 ? Gravity.BOTTOM : Gravity.TOP | Gravity.END, 400, 250);
+            sum += solver.mX + solver.mY;
+        }
+        return sum;
+    }
+}
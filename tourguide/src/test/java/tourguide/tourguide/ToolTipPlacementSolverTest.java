@@ -0,0 +1,244 @@
+package tourguide.tourguide;
+
+import android.view.Gravity;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ToolTipPlacementSolverTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int STATUS_BAR = 48;
+    private static final int NAVIGATION_BAR = 96;
+    private static final int OFFSET = 20;
+
+    private static ToolTipPlacementSolver solver(int targetLeft, int targetTop, int targetRight, int targetBottom) {
+        ToolTipPlacementSolver solver = new ToolTipPlacementSolver();
+        solver.setBounds(0, STATUS_BAR, WIDTH, HEIGHT - NAVIGATION_BAR);
+        solver.setTarget(targetLeft, targetTop, targetRight, targetBottom);
+        solver.setOffset(OFFSET);
+        return solver;
+    }
+
+    @Test
+    public void requestedGravityIsKeptWhenItFits() {
+        ToolTipPlacementSolver solver = solver(400, 800, 600, 900);
+        solver.solve(Gravity.BOTTOM, 300, 200);
+
+        assertEquals(Gravity.BOTTOM, solver.mGravity);
+        assertEquals(500 - 150, solver.mX);
+        assertEquals(900 + OFFSET, solver.mY);
+
+        solver.solve(Gravity.TOP | Gravity.END, 300, 200);
+
+        assertEquals(Gravity.TOP | Gravity.END, solver.mGravity);
+        assertEquals(600 - OFFSET, solver.mX);
+        assertEquals(800 - 200 + OFFSET, solver.mY);
+    }
+
+    @Test
+    public void flipsAboveTheTargetAtTheBottomOfTheScreen() {
+        ToolTipPlacementSolver solver = solver(400, 1650, 600, 1750);
+        solver.solve(Gravity.BOTTOM, 300, 200);
+
+        assertEquals(Gravity.TOP, solver.mGravity);
+        assertEquals(1650 - 200 - OFFSET, solver.mY);
+    }
+
+    @Test
+    public void staysBelowTheStatusBar() {
+        ToolTipPlacementSolver solver = solver(400, 100, 600, 200);
+        solver.solve(Gravity.TOP, 300, 200);
+
+        assertEquals(Gravity.BOTTOM, solver.mGravity);
+        assertEquals(200 + OFFSET, solver.mY);
+    }
+
+    @Test
+    public void isShiftedHorizontallyIntoTheBounds() {
+        ToolTipPlacementSolver solver = solver(1000, 800, 1080, 900);
+        solver.solve(Gravity.BOTTOM, 300, 200);
+
+        assertEquals(Gravity.BOTTOM, solver.mGravity);
+        assertEquals(WIDTH - 300, solver.mX);
+    }
+
+    @Test
+    public void avoidsAnotherToolTip() {
+        ToolTipPlacementSolver solver = solver(400, 800, 600, 900);
+        // right below the target
+        assertTrue(solver.addObstacle(300, 920, 700, 1120));
+        solver.solve(Gravity.BOTTOM, 300, 200);
+
+        assertEquals(Gravity.TOP, solver.mGravity);
+
+        solver.clearObstacles();
+        solver.solve(Gravity.BOTTOM, 300, 200);
+
+        assertEquals(Gravity.BOTTOM, solver.mGravity);
+    }
+
+    @Test
+    public void avoidsACircularHoleLargerThanTheTarget() {
+        ToolTipPlacementSolver solver = solver(400, 800, 600, 900);
+        solver.solve(Gravity.BOTTOM, 300, 200);
+        assertEquals(Gravity.BOTTOM, solver.mGravity);
+
+        // the circle of a CIRCLE overlay, padded by 20dp at density 2: below and above the target are both inside the circle
+        solver.setHole(360, 710, 640, 990, true);
+        solver.solve(Gravity.BOTTOM, 300, 200);
+
+        assertEquals(Gravity.BOTTOM | Gravity.END, solver.mGravity);
+        assertEquals(600 - OFFSET, solver.mX);
+        assertEquals(900 - OFFSET, solver.mY);
+    }
+
+    @Test
+    public void onlyTheCircleCountsNotItsBounds() {
+        ToolTipPlacementSolver solver = solver(400, 800, 600, 900);
+        // a circle offset below the target, the requested ToolTip covers the corner of its bounds but not the circle itself
+        solver.setHole(620, 1090, 900, 1370, true);
+        solver.solve(Gravity.BOTTOM, 300, 200);
+        assertEquals(Gravity.BOTTOM, solver.mGravity);
+
+        // the same bounds as a padded rectangle are covered
+        solver.setHole(620, 1090, 900, 1370, false);
+        solver.solve(Gravity.BOTTOM, 300, 200);
+        assertEquals(Gravity.TOP, solver.mGravity);
+    }
+
+    @Test
+    public void goesBesideATargetTooTallToFitAboveOrBelow() {
+        ToolTipPlacementSolver solver = solver(0, 100, 700, 1750);
+        solver.solve(Gravity.BOTTOM, 300, 200);
+
+        // shifted into the screen, above or below would cover the target
+        assertEquals(Gravity.BOTTOM | Gravity.END, solver.mGravity);
+        assertEquals(700 - OFFSET, solver.mX);
+        assertEquals(HEIGHT - NAVIGATION_BAR - 200, solver.mY);
+    }
+
+    @Test
+    public void keepsTheToolTipOnScreenWhenNothingFits() {
+        ToolTipPlacementSolver solver = solver(0, STATUS_BAR, WIDTH, HEIGHT - NAVIGATION_BAR);
+        solver.solve(Gravity.BOTTOM, 300, 200);
+
+        assertTrue(solver.mY >= STATUS_BAR);
+        assertTrue(solver.mY + 200 <= HEIGHT - NAVIGATION_BAR);
+        assertTrue(solver.mX >= 0);
+        assertTrue(solver.mX + 300 <= WIDTH);
+    }
+
+    @Test
+    public void hintsPlacedOneAfterTheOtherDoNotOverlap() {
+        // ten buttons in a grid, placed the way ToolTipGroup does: each ToolTip avoids the ones before it and the other buttons
+        int hints = 10;
+        int[][] targets = new int[hints][];
+        for (int i = 0; i < hints; i++) {
+            int x = 100 + (i % 2) * 600;
+            int y = 200 + (i / 2) * 340;
+            targets[i] = new int[]{x, y, x + 200, y + 100};
+        }
+        int[][] placed = new int[hints][];
+        ToolTipPlacementSolver solver = new ToolTipPlacementSolver();
+        solver.setBounds(0, STATUS_BAR, WIDTH, HEIGHT - NAVIGATION_BAR);
+        solver.setOffset(OFFSET);
+        for (int i = 0; i < hints; i++) {
+            solver.clearObstacles();
+            for (int j = 0; j < i; j++) {
+                solver.addObstacle(placed[j][0], placed[j][1], placed[j][2], placed[j][3]);
+            }
+            for (int j = 0; j < hints; j++) {
+                if (j != i) {
+                    solver.addObstacle(targets[j][0], targets[j][1], targets[j][2], targets[j][3]);
+                }
+            }
+            solver.setTarget(targets[i][0], targets[i][1], targets[i][2], targets[i][3]);
+            solver.solve(Gravity.BOTTOM, 300, 120);
+            placed[i] = new int[]{solver.mX, solver.mY, solver.mX + 300, solver.mY + 120};
+        }
+
+        for (int i = 0; i < hints; i++) {
+            for (int j = 0; j < hints; j++) {
+                if (i != j) {
+                    assertFalse(i + " covers the ToolTip of " + j, overlaps(placed[i], placed[j]));
+                    assertFalse(i + " covers the target of " + j, overlaps(placed[i], targets[j]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void moreHintsThanObstacleSlotsDoNotOverlap() {
+        // twenty buttons in a grid, forty ToolTips and targets in all: only the ones within reach are avoided, as ToolTipGroup does
+        int columns = 4;
+        int hints = 20;
+        int width = 200;
+        int height = 100;
+        int[][] targets = new int[hints][];
+        for (int i = 0; i < hints; i++) {
+            int x = 20 + (i % columns) * 270;
+            int y = 200 + (i / columns) * 340;
+            targets[i] = new int[]{x, y, x + 120, y + 60};
+        }
+        int[][] placed = new int[hints][];
+        ToolTipPlacementSolver solver = new ToolTipPlacementSolver();
+        solver.setBounds(0, STATUS_BAR, WIDTH, HEIGHT - NAVIGATION_BAR);
+        solver.setOffset(OFFSET);
+        for (int i = 0; i < hints; i++) {
+            solver.setTarget(targets[i][0], targets[i][1], targets[i][2], targets[i][3]);
+            solver.clearObstacles();
+            for (int j = 0; j < i; j++) {
+                avoidIfWithinReach(solver, placed[j], width, height);
+            }
+            for (int j = 0; j < hints; j++) {
+                if (j != i) {
+                    avoidIfWithinReach(solver, targets[j], width, height);
+                }
+            }
+            solver.solve(Gravity.BOTTOM, width, height);
+            placed[i] = new int[]{solver.mX, solver.mY, solver.mX + width, solver.mY + height};
+        }
+
+        for (int i = 0; i < hints; i++) {
+            for (int j = 0; j < hints; j++) {
+                if (i != j) {
+                    assertFalse(i + " covers the ToolTip of " + j, overlaps(placed[i], placed[j]));
+                    assertFalse(i + " covers the target of " + j, overlaps(placed[i], targets[j]));
+                }
+            }
+        }
+    }
+
+    private static void avoidIfWithinReach(ToolTipPlacementSolver solver, int[] area, int width, int height) {
+        if (solver.canReach(area[0], area[1], area[2], area[3], width, height)) {
+            assertTrue("more obstacles within reach than the solver takes", solver.addObstacle(area[0], area[1], area[2], area[3]));
+        }
+    }
+
+    @Test
+    public void onlyAreasNextToTheTargetAreWithinReach() {
+        ToolTipPlacementSolver solver = solver(400, 800, 600, 900);
+
+        assertTrue(solver.canReach(300, 920, 700, 1120, 300, 200));
+        assertTrue(solver.canReach(100, 600, 150, 650, 300, 200));
+        assertFalse(solver.canReach(400, 1300, 600, 1400, 300, 200));
+        assertFalse(solver.canReach(0, 0, 50, 50, 300, 200));
+    }
+
+    private static boolean overlaps(int[] a, int[] b) {
+        return a[0] < b[2] && b[0] < a[2] && a[1] < b[3] && b[1] < a[3];
+    }
+
+    @Test
+    public void obstaclesAreBounded() {
+        ToolTipPlacementSolver solver = solver(400, 800, 600, 900);
+        for (int i = 0; i < ToolTipPlacementSolver.MAX_OBSTACLES; i++) {
+            assertTrue(solver.addObstacle(0, 0, 10, 10));
+        }
+        assertFalse(solver.addObstacle(0, 0, 10, 10));
+    }
+}
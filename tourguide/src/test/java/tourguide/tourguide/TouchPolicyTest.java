@@ -0,0 +1,71 @@
+package tourguide.tourguide;
+
+import android.view.View;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class TouchPolicyTest {
+
+    @Test
+    public void withoutOverlayEverythingGoesThrough() {
+        TouchPolicy policy = TouchPolicy.compile(null, TourGuide.MotionType.CLICK_ONLY);
+
+        assertSame(TouchPolicy.PASS_ALL, policy);
+        assertEquals(TouchPolicy.Route.PASS_THROUGH, policy.route(true));
+        assertEquals(TouchPolicy.Route.PASS_THROUGH, policy.route(false));
+    }
+
+    @Test
+    public void defaultOverlayLetsTheHoleThroughAndBlocksTheRest() {
+        TouchPolicy policy = TouchPolicy.compile(new Overlay(), TourGuide.MotionType.ALLOW_ALL);
+
+        assertEquals(TouchPolicy.Route.PASS_THROUGH, policy.route(true));
+        assertEquals(TouchPolicy.Route.CONSUME, policy.route(false));
+    }
+
+    @Test
+    public void clickThroughOutsideTheHole() {
+        TouchPolicy policy = TouchPolicy.compile(new Overlay().disableClickThrough(false), null);
+
+        assertEquals(TouchPolicy.Route.PASS_THROUGH, policy.route(false));
+    }
+
+    @Test
+    public void outsideListenerBlocksClickThrough() {
+        Overlay overlay = new Overlay().disableClickThrough(false).setOnClickOutsideTargetListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+            }
+        });
+
+        assertEquals(TouchPolicy.Route.CONSUME, TouchPolicy.compile(overlay, null).route(false));
+    }
+
+    @Test
+    public void targetListenersTakePrecedenceOverTheMotionType() {
+        Overlay overlay = new Overlay().setOnClickTargetListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+            }
+        });
+
+        assertEquals(TouchPolicy.Route.CONSUME, TouchPolicy.compile(overlay, TourGuide.MotionType.CLICK_ONLY).route(true));
+        assertEquals(TouchPolicy.Route.CONSUME,
+            TouchPolicy.compile(new Overlay().disableInteractWithTarget(true), TourGuide.MotionType.SWIPE_ONLY).route(true));
+    }
+
+    @Test
+    public void clickOnlyIsForwardedToTheTarget() {
+        TouchPolicy clickOnly = TouchPolicy.compile(new Overlay(), TourGuide.MotionType.CLICK_ONLY);
+        assertEquals(TouchPolicy.Route.FORWARD_TO_TARGET, clickOnly.route(true));
+    }
+
+    @Test
+    public void swipeOnlyIsForwardedThroughTheParentsOfTheTarget() {
+        TouchPolicy swipeOnly = TouchPolicy.compile(new Overlay(), TourGuide.MotionType.SWIPE_ONLY);
+        assertEquals(TouchPolicy.Route.FORWARD_SWIPES, swipeOnly.route(true));
+    }
+}